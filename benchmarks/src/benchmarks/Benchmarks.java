@@ -0,0 +1,23 @@
+package benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, which reports the allocation rate next to the throughput
+ *
+ * Optionally takes a regular expression selecting the benchmarks to run, e.g. "GridBenchmark"
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(args.length > 0? args[0]:".*Benchmark.*")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+
+}
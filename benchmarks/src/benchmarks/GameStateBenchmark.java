@@ -0,0 +1,74 @@
+package benchmarks;
+
+import misc.Color;
+import misc.GameState;
+import misc.Grid;
+import misc.MoveSuggestion;
+import misc.player.computer.strategy.Strategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the game state operations used at every node of a search
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameStateBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private GameState state;
+    private Color color;
+    /** A move that can be made in the position */
+    private MoveSuggestion move;
+    /** Buffer for allocation-free move generation */
+    private final int[] buffer = new int[Grid.COLUMNS];
+
+    @Setup
+    public void setUp() {
+        state = Positions.state(position);
+        color = Positions.toMove(position);
+        move = Strategy.generatePossibleMoves(state, color).get(0);
+    }
+
+    @Benchmark
+    public boolean lastMoveWasWinning() {
+        return state.lastMoveWasWinning();
+    }
+
+    @Benchmark
+    public List<MoveSuggestion> generatePossibleMoves() {
+        return Strategy.generatePossibleMoves(state, color);
+    }
+
+    @Benchmark
+    public int generatePossibleMovesIntoBuffer() {
+        return Strategy.generatePossibleMoves(state, buffer);
+    }
+
+    @Benchmark
+    public boolean doAndUndoMove() {
+        boolean done = state.doMove(move.getColor(), move.getX(), move.getY());
+        state.undoMove();
+        return done;
+    }
+
+    @Benchmark
+    public GameState deepCopy() {
+        return state.deepCopy();
+    }
+
+    @Benchmark
+    public int hash() {
+        return state.hashCode();
+    }
+
+
+}
@@ -0,0 +1,65 @@
+package benchmarks;
+
+import misc.Color;
+import misc.Grid;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the grid primitives
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GridBenchmark {
+
+    @Param({Positions.EMPTY, Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private Grid grid;
+    /** Column that is not full in the position */
+    private int x;
+    private int y;
+
+    @Setup
+    public void setUp() throws Exception {
+        grid = Positions.grid(position);
+        for (int i = 0; i < Grid.XRANGE * Grid.YRANGE; i++) {
+            x = i % Grid.XRANGE;
+            y = i / Grid.XRANGE;
+            if (!grid.isFull(x, y)) {
+                break;
+            }
+        }
+    }
+
+    @Benchmark
+    public int dropAndUndo() throws Exception {
+        int z = grid.drop(Color.RED, x, y);
+        grid.undo(x, y);
+        return z;
+    }
+
+    @Benchmark
+    public int hash() {
+        return grid.hashCode();
+    }
+
+    @Benchmark
+    public void occupiedBy(Blackhole blackhole) throws Exception {
+        for (int x = 0; x < Grid.XRANGE; x++) {
+            for (int y = 0; y < Grid.YRANGE; y++) {
+                for (int z = 0; z < Grid.ZRANGE; z++) {
+                    blackhole.consume(grid.occupiedBy(x, y, z));
+                }
+            }
+        }
+    }
+
+
+}
@@ -0,0 +1,64 @@
+package benchmarks;
+
+import misc.Color;
+import misc.GameState;
+import misc.player.computer.strategy.heuristics.ChainHeuristic;
+import misc.player.computer.strategy.heuristics.Heuristic;
+import misc.player.computer.strategy.heuristics.PotentialChainHeuristic;
+import misc.player.computer.strategy.heuristics.SlotHeuristic;
+import misc.player.computer.strategy.heuristics.WeightedHeuristic;
+import misc.player.computer.strategy.heuristics.Weights;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of every heuristic
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HeuristicBenchmark {
+
+    @Param({"slot", "chain", "potentialChain", "weighted"})
+    public String heuristic;
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private Heuristic instance;
+    private GameState state;
+    private Color color;
+
+    @Setup
+    public void setUp() {
+        switch (heuristic) {
+            case "slot":
+                instance = new SlotHeuristic();
+                break;
+            case "chain":
+                instance = new ChainHeuristic();
+                break;
+            case "potentialChain":
+                instance = new PotentialChainHeuristic();
+                break;
+            case "weighted":
+                instance = new WeightedHeuristic(Weights.DEFAULT);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown heuristic: %s", heuristic));
+        }
+        state = Positions.state(position);
+        color = Positions.toMove(position);
+    }
+
+    @Benchmark
+    public int score() {
+        return instance.score(state, color);
+    }
+
+
+}
@@ -0,0 +1,87 @@
+package benchmarks;
+
+import misc.Color;
+import misc.GameState;
+import misc.Grid;
+
+/**
+ * Canonical positions the benchmarks are run on
+ *
+ * All positions are prefixes of the same game, so none of them has been won yet
+ */
+public final class Positions {
+
+    /**
+     * Position names, usable as @Param values
+     */
+
+    public static final String EMPTY = "empty";
+    public static final String OPENING = "opening";
+    public static final String MIDDLEGAME = "middlegame";
+    public static final String ENDGAME = "endgame";
+
+    /** Columns (x, y) of the moves of the game. Red moves first */
+    private static final int[][] GAME = new int[][]{
+            {0, 0}, {3, 3}, {3, 0}, {0, 3}, {1, 0}, {2, 0}, {1, 3}, {1, 1},
+            {1, 0}, {1, 1}, {1, 1}, {2, 2}, {2, 3}, {2, 2}, {1, 0}, {1, 0},
+            {2, 2}, {3, 1}, {2, 1}, {2, 1}, {2, 1}, {0, 0}, {3, 3}, {2, 0},
+            {2, 3}, {2, 0}, {2, 0}, {3, 1}, {1, 3}, {0, 3}, {3, 3}, {1, 2}
+    };
+
+    private Positions() {}
+
+    /**
+     * @return the amount of moves of the game that lead to the position
+     */
+    private static int length(String position) {
+        switch (position) {
+            case EMPTY:
+                return 0;
+            case OPENING:
+                return 4;
+            case MIDDLEGAME:
+                return 16;
+            case ENDGAME:
+                return 30;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown position: %s", position));
+        }
+    }
+
+    /**
+     * @return a new game state in the specified position
+     */
+    public static GameState state(String position) {
+        GameState state = new GameState();
+        Color color = Color.RED;
+        for (int i = 0; i < length(position); i++) {
+            if (!state.doMove(color, GAME[i][0], GAME[i][1])) {
+                throw new IllegalStateException(String.format("Illegal move %d in position %s", i, position));
+            }
+            color = color.other();
+        }
+        return state;
+    }
+
+    /**
+     * @return a new grid in the specified position
+     */
+    public static Grid grid(String position) throws Exception {
+        Grid grid = new Grid();
+        Color color = Color.RED;
+        for (int i = 0; i < length(position); i++) {
+            grid.drop(color, GAME[i][0], GAME[i][1]);
+            color = color.other();
+        }
+        return grid;
+    }
+
+    /**
+     * @return the color that has to make the next move in the specified position
+     */
+    public static Color toMove(String position) {
+        return length(position) % 2 == 0? Color.RED:Color.YELLOW;
+    }
+
+
+}
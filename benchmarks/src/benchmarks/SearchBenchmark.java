@@ -0,0 +1,139 @@
+package benchmarks;
+
+import misc.Color;
+import misc.GameState;
+import misc.player.computer.barry.Barry;
+import misc.player.computer.strategy.Strategy;
+import misc.player.computer.strategy.heuristics.SlotHeuristic;
+import misc.player.computer.strategy.minimax.MTDF;
+import misc.player.computer.strategy.minimax.NegaMaxAlphaBeta;
+import misc.player.computer.strategy.minimax.NegaMaxDynamic;
+import misc.player.computer.strategy.minimax.NegaMaxForkJoin;
+import misc.player.computer.strategy.minimax.NegaScout;
+import misc.player.human.input.PlayerInput;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of complete fixed depth searches
+ *
+ * Every invocation uses a fresh strategy, so transposition tables do not carry over between invocations
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"alphaBeta", "dynamic", "pvs", "mtdf", "forkJoin", "barry", "barryNegaMax", "barryMtdf"})
+    public String engine;
+
+    @Param({Positions.EMPTY, Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    @Param({"5"})
+    public int depth;
+
+    private GameState state;
+    private Color color;
+    private Barry barry;
+    private Strategy strategy;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        state = Positions.state(position);
+        color = Positions.toMove(position);
+        SlotHeuristic heuristic = new SlotHeuristic();
+        switch (engine) {
+            case "alphaBeta":
+                strategy = new NegaMaxAlphaBeta(depth, color) {
+                    @Override
+                    protected int score(GameState state, Color color) {
+                        return heuristic.score(state, color);
+                    }
+
+                    @Override
+                    protected void orderMoves(int[] moves, int count, Color color, GameState state) {}
+                };
+                break;
+            case "dynamic":
+                strategy = new NegaMaxDynamic(depth, color) {
+                    @Override
+                    protected int score(GameState state, Color color) {
+                        return heuristic.score(state, color);
+                    }
+
+                    @Override
+                    protected void orderMoves(int[] moves, int count, Color color, GameState state) {}
+                };
+                break;
+            case "pvs":
+                strategy = new NegaScout(depth, color) {
+                    @Override
+                    protected int score(GameState state, Color color) {
+                        return heuristic.score(state, color);
+                    }
+
+                    @Override
+                    protected void orderMoves(int[] moves, int count, Color color, GameState state) {}
+                };
+                break;
+            case "mtdf":
+                strategy = new MTDF(depth, color) {
+                    @Override
+                    protected int score(GameState state, Color color) {
+                        return heuristic.score(state, color);
+                    }
+
+                    @Override
+                    protected void orderMoves(int[] moves, int count, Color color, GameState state) {}
+                };
+                break;
+            case "forkJoin":
+                strategy = new NegaMaxForkJoin(depth, color) {
+                    @Override
+                    protected int score(GameState state, Color color) {
+                        return heuristic.score(state, color);
+                    }
+
+                    @Override
+                    protected void orderMoves(int[] moves, int count, Color color, GameState state) {}
+                };
+                break;
+            case "barry":
+                barry = new Barry(color, depth);
+                break;
+            case "barryNegaMax":
+                barry = new Barry(color, depth, 0, 1, Barry.Search.NEGAMAX);
+                break;
+            case "barryMtdf":
+                barry = new Barry(color, depth, 0, 1, Barry.Search.MTDF);
+                break;
+            default:
+                throw new IllegalArgumentException(String.format("Unknown engine: %s", engine));
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+        if (barry != null) {
+            barry.close();
+        }
+        if (strategy instanceof NegaMaxForkJoin) {
+            ((NegaMaxForkJoin) strategy).close();
+        }
+    }
+
+    @Benchmark
+    public PlayerInput search() {
+        if (barry != null) {
+            return barry.decide(state);
+        }
+        return strategy.determineMove(state);
+    }
+
+
+}
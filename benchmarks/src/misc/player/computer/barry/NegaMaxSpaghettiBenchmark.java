@@ -0,0 +1,62 @@
+package misc.player.computer.barry;
+
+import benchmarks.Positions;
+import misc.Color;
+import misc.GameState;
+import misc.Move;
+import misc.Grid;
+import misc.player.computer.strategy.Strategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of Barry's evaluation and move ordering
+ *
+ * Lives in Barry's package to reach the package-private engine
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NegaMaxSpaghettiBenchmark {
+
+    @Param({Positions.OPENING, Positions.MIDDLEGAME, Positions.ENDGAME})
+    public String position;
+
+    private NegaMaxSpaghetti spaghetti;
+    private GameState state;
+    private Color color;
+    private int[] moves;
+    private int count;
+    private int[] buffer;
+
+    @Setup
+    public void setUp() {
+        color = Positions.toMove(position);
+        spaghetti = new NegaMaxSpaghetti(1, color, 1);
+        state = spaghetti.new ExtendedGameState();
+        for (Move move : Positions.state(position).getMoves()) {
+            state.doMove(move.getColor(), move.getX(), move.getY());
+        }
+        moves = new int[Grid.COLUMNS];
+        buffer = new int[Grid.COLUMNS];
+        count = Strategy.generatePossibleMoves(state, moves);
+    }
+
+    @Benchmark
+    public int score() {
+        return spaghetti.score(state, color);
+    }
+
+    @Benchmark
+    public int[] orderMoves() {
+        System.arraycopy(moves, 0, buffer, 0, count);
+        spaghetti.orderMoves(buffer, count, color, state);
+        return buffer;
+    }
+
+
+}
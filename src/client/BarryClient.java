@@ -193,6 +193,7 @@ public class BarryClient {
 //                System.out.println(TUI.prettyPrint(gameState));
                 message = getServerMessage();
             }
+            barry.close();
             // Exit game
             exitGame();
         }
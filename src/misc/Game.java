@@ -125,7 +125,8 @@ public class Game {
     private void showGrid() {
 
         if (USEGUI){
-            gui.update(state);
+            /** The panel is painted later on the event dispatch thread, it gets a snapshot of the current state */
+            gui.update(state.snapshot());
         } else {
             System.out.println(TUI.prettyPrint(state));
         }
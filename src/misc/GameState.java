@@ -1,8 +1,9 @@
 package misc;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EmptyStackException;
 import java.util.List;
-import java.util.Stack;
 
 /**
  * Keeps track of game progression
@@ -10,135 +11,140 @@ import java.util.Stack;
 public class GameState {
 
     /**
-     * Direction vectors for connect-check
-     *
-     * Opposing vectors form axes
+     * Instance variables
      */
 
     /**
-     * 1D
+     * Stores all moves that have been done, one byte per move: the column index (see Grid.columnIndex) in the lower
+     * bits, YELLOW_MOVE set for moves made by yellow. Move objects are only created for callers that ask for them
      */
+    private final byte[] moves;
+    /** Amount of moves that have been done */
+    private int ply;
 
-    private static final int[] UP = new int[]{0, 0, 1};
-    private static final int[] DOWN = new int[]{0, 0, -1};
-    private static final int[] LEFT = new int[]{-1, 0, 0};
-    private static final int[] RIGHT = new int[]{1, 0, 0};
-    private static final int[] FORWARD = new int[]{0, -1, 0};
-    private static final int[] BACKWARD = new int[]{0, 1, 0};
-
-    private static final int[][] axis1 = new int[][]{UP, DOWN};
-    private static final int[][] axis2 = new int[][]{LEFT, RIGHT};
-    private static final int[][] axis3 = new int[][]{FORWARD, BACKWARD};
+    /** Grid for keeping track of piece locations */
+    private final Grid grid;
 
     /**
-     * 2D
+     * Constructor
      */
 
-    private static final int[] D1 = new int[]{1, 1, 0};
-    private static final int[] D2 = new int[]{-1, -1, 0};
-    private static final int[] D3 = new int[]{1, -1, 0};
-    private static final int[] D4 = new int[]{-1, 1, 0};
-    private static final int[] D5 = new int[]{1, 0, 1};
-    private static final int[] D6 = new int[]{-1, 0, -1};
-    private static final int[] D7 = new int[]{1, 0, -1};
-    private static final int[] D8 = new int[]{-1, 0, 1};
-    private static final int[] D9 = new int[]{0, 1, 1};
-    private static final int[] D10 = new int[]{0, -1, -1};
-    private static final int[] D11 = new int[]{0, 1, -1};
-    private static final int[] D12 = new int[]{0, -1, 1};
-
-    private static final int[][] axis4 = new int[][]{D1, D2};
-    private static final int[][] axis5 = new int[][]{D3, D4};
-    private static final int[][] axis6 = new int[][]{D5, D6};
-    private static final int[][] axis7 = new int[][]{D7, D8};
-    private static final int[][] axis8 = new int[][]{D9, D10};
-    private static final int[][] axis9 = new int[][]{D11, D12};
+    public GameState() {
+        this.moves = new byte[Grid.SLOTS];
+        this.ply = 0;
+        this.grid = new Grid();
+    }
 
     /**
-     * 3D
+     * Create a copy of the game state. Copies the grid words and the move log, no moves are replayed
      */
+    protected GameState(GameState state) {
+        this.moves = Arrays.copyOf(state.moves, Grid.SLOTS);
+        this.ply = state.ply;
+        this.grid = state.grid.deepCopy();
+    }
 
-    private static final int[] DD1 = new int[]{1,1,1};
-    private static final int[] DD2 = new int[]{-1,-1,-1};
-    private static final int[] DD3 = new int[]{1,1,-1};
-    private static final int[] DD4 = new int[]{-1,-1,1};
-    private static final int[] DD5 = new int[]{1,-1,1};
-    private static final int[] DD6 = new int[]{-1,1,-1};
-    private static final int[] DD7 = new int[]{-1,1,1};
-    private static final int[] DD8 = new int[]{1,-1,-1};
+    /**
+     * Move log encoding
+     */
 
-    private static final int[][] axis10 = new int[][]{DD1, DD2};
-    private static final int[][] axis11 = new int[][]{DD3, DD4};
-    private static final int[][] axis12 = new int[][]{DD5, DD6};
-    private static final int[][] axis13 = new int[][]{DD7, DD8};
+    /** Bit set in the move log for moves made by yellow */
+    private static final int YELLOW_MOVE = Grid.COLUMNS;
+    /** Mask to obtain the column index from the move log */
+    private static final int COLUMN_MASK = Grid.COLUMNS - 1;
 
     /**
-     * All axes that need to be checked
+     * Queries
      */
-    private static final int[][][] axes = new int[][][]{axis1, axis2, axis3, axis4, axis5, axis6, axis7, axis8, axis9, axis10, axis11, axis12, axis13};
 
     /**
-     * Instance variables
+     * Check if the grid is full
      */
+    public final boolean gridIsFull() {
+        return grid.isFull();
+    }
 
-    /** Stores all moves that have been done */
-    private final Stack<Move> moves;
+    /**
+     * Get the color that occupies this coordinate
+     */
+    public final Color colorOccupying(int x, int y, int z) {
+        return Grid.isValidSlot(x, y, z)? grid.get(Grid.slotIndex(x, y, z)):null;
+    }
 
-    /** Grid for keeping track of piece locations */
-    private final Grid grid;
+    /**
+     * Get the color that occupies the slot with this index (see Grid.slotIndex). The index is not checked
+     */
+    public final Color colorOccupying(int slot) {
+        return grid.get(slot);
+    }
 
     /**
-     * Constructor
+     * Check if a piece can be dropped in the column with this index (see Grid.columnIndex). The index is not checked
      */
+    public final boolean canDrop(int column) {
+        return grid.canDrop(column);
+    }
 
-    public GameState() {
-        this.moves = new Stack<>();
-        this.grid = new Grid();
+    /**
+     * Get the amount of pieces in the column with this index. The index is not checked
+     */
+    public final int heightOf(int column) {
+        return grid.heightOf(column);
     }
 
     /**
-     * Queries
+     * Get a mask with bit i set if a piece can be dropped in column i (see Grid.columnIndex)
      */
+    public final int getPlayableColumns() {
+        return grid.getPlayableColumns();
+    }
 
     /**
-     * Check if the grid is full
+     * Get the bitboard of all slots occupied by the specified color
      */
-    public final boolean gridIsFull() {
-        return grid.isFull();
+    public final long getBoard(Color color) {
+        return grid.getBoard(color);
     }
 
     /**
-     * Get the color that occupies this coordinate
+     * Get the 64-bit Zobrist key of the current grid. Maintained incrementally, so this is a constant time operation
      */
-    public final Color colorOccupying(int x, int y, int z) {
-        try {
-            return grid.occupiedBy(x, y, z);
-        } catch (Grid.InvalidCoordinatesException e) {
-            e.printStackTrace();
-            return null;
-        }
+    public final long getZobristKey() {
+        return grid.getZobristKey();
     }
 
     /**
      * Get a deep copy of this game state
      */
     public GameState deepCopy() {
-        GameState copy = new GameState();
-        for (Move moveEntry : moves.subList(0, moves.size())) {
-            copy.doMove(moveEntry.getColor(), moveEntry.getX(), moveEntry.getY());
-        }
-        return copy;
+        return new GameState(this);
+    }
+
+    /**
+     * Get a read-only snapshot of the current game state. Later moves are not reflected in it
+     */
+    public GameStateSnapshot snapshot() {
+        return new GameStateSnapshot(new GameState(this));
+    }
+
+    /**
+     * Get the amount of moves that have been performed
+     */
+    public final int getMoveCount() {
+        return ply;
     }
 
     /**
-     * Get all moves that have been performed
+     * Get all moves that have been performed. The list is a copy, later moves are not reflected in it
      */
     public List<Move> getMoves() {
-        if (moves.size() > 0) {
-            return moves.subList(0, moves.size());
-        } else {
-            return new ArrayList<>();
+        List<Move> result = new ArrayList<>(ply);
+        int[] heights = new int[Grid.COLUMNS];
+        for (int i = 0; i < ply; i++) {
+            int column = moves[i] & COLUMN_MASK;
+            result.add(new Move(colorOf(moves[i]), Grid.columnX(column), Grid.columnY(column), heights[column]++));
         }
+        return result;
     }
 
     /**
@@ -146,6 +152,7 @@ public class GameState {
      */
     public List<Move> getMoves(Color color) {
         List<Move> result = new ArrayList<>();
+        List<Move> moves = getMoves();
         for (int i = color == Color.RED? 0:1; i < moves.size(); i+=2) {
             result.add(moves.get(i));
         }
@@ -156,82 +163,36 @@ public class GameState {
      * Get the last move that was done on the grid
      */
     public Move getLastMove() {
-        if (moves.size() > 0) {
-            return moves.peek();
+        if (ply > 0) {
+            int column = moves[ply - 1] & COLUMN_MASK;
+            return new Move(colorOf(moves[ply - 1]), Grid.columnX(column), Grid.columnY(column), grid.heightOf(column) - 1);
         } else {
             return null;
         }
     }
 
     /**
-     * Check if the last move that has been made won the game (by getting a chain of the required length)
+     * Get the slot index (see Grid.slotIndex) of the last move, or -1 if no move has been done
      */
-    public final boolean lastMoveWasWinning() {
-        /** Get the last move that has been executed */
-        if (moves.size() > 0) {
-            Move last = moves.peek();
-            final Color color = last.getColor();
-            /** Get the location that should be checked */
-            final int[] origin = new int[]{last.getX(), last.getY(), last.getZ()};
-            /** Check all axes for chains */
-            for (int[][] axis : axes) {
-                int[] direction1 = axis[0];
-                int[] direction2 = axis[1];
-                int chainLength = 1;
-                chainLength += checkDirection(origin, direction1, color);
-                chainLength += checkDirection(origin, direction2, color);
-                if (chainLength >= Game.CONNECT) {
-                    return true;
-                }
-            }
+    public final int getLastSlot() {
+        if (ply > 0) {
+            int column = moves[ply - 1] & COLUMN_MASK;
+            return column + Grid.COLUMNS * (grid.heightOf(column) - 1);
+        } else {
+            return -1;
         }
-        return false;
     }
 
     /**
-     * Helper method of lastMoveWasWinning
-     * Calculates the coordinates of a slot in a certain direction and distance from the origin
-     */
-    private int[] getLocation(final int[] origin, final int[] direction, final int multiplier) {
-        return new int[]{origin[0] + multiplier * direction[0],
-                origin[1] + multiplier * direction[1],
-                origin[2] + multiplier * direction[2]};
-    }
-
-    /**
-     * Helper method of lastMoveWasWinning
-     * Count the chain length of the specified color at the origin in a certain direction (bounded to chain length n)
-     *
-     * Careful: Works for color == null as well!
+     * Check if the last move that has been made won the game (by getting a chain of the required length)
      */
-    private int checkDirection(final int[] origin, final int[] direction, final Color color) {
-        int chainLength = 0;
-        /** Look at max n - 1 slots. (More is useless) */
-        for (int i = 1; i < Game.CONNECT; i++) {
-            /** Calculate the coordinates of the position to look at */
-            int[] coordinates = getLocation(origin, direction, i);
-            /** If the coordinate is on the grid, continue, otherwise break */
-            try {
-                if (Grid.isValidSlot(coordinates[0], coordinates[1], coordinates[2])) {
-                    Color occupiedBy = grid.occupiedBy(coordinates[0],coordinates[1],coordinates[2]);
-                    /** Is the slot occupied by the specified color? */
-                    if (occupiedBy == color) {
-                        /** Color is the same! Increase chain length */
-                        chainLength++;
-                    } else {
-                        /** Color is different. Stop counting */
-                        break;
-                    }
-                } else {
-                    /** Reached the end of the grid. Stop counting */
-                    break;
-                }
-            } catch (Grid.InvalidCoordinatesException e) {
-                /** Reached the end of the grid. Stop counting */
-                break;
-            }
+    public final boolean lastMoveWasWinning() {
+        /** Get the last move that has been executed */
+        if (ply > 0) {
+            /** Check all lines through the slot of the last move */
+            return Geometry.completesLine(grid.getBoard(colorOf(moves[ply - 1])), getLastSlot());
         }
-        return chainLength;
+        return false;
     }
 
     /**
@@ -241,26 +202,42 @@ public class GameState {
     /**
      * Perform a move on the grid. Return a boolean indicating if the move was successful
      */
-    public boolean doMove(Color color, int x, int y) {
-        try {
-            int z = grid.drop(color, x, y);
-            this.moves.push(new Move(color, x, y, z));
-        } catch (Grid.FullColumnException | Grid.InvalidCoordinatesException e) {
+    public final boolean doMove(Color color, int x, int y) {
+        if (!Grid.isValidColumn(x, y) || !grid.canDrop(Grid.columnIndex(x, y))) {
             return false;
         }
+        doMove(color, Grid.columnIndex(x, y));
         return true;
     }
 
+    /**
+     * Perform a move in the column with this index (see Grid.columnIndex). Nothing is checked, the caller has to make
+     * sure a piece can be dropped in the column. Meant for engines that generate their own moves
+     */
+    public void doMove(Color color, int column) {
+        grid.drop(color, column);
+        this.moves[ply++] = (byte) (column | (color == Color.YELLOW? YELLOW_MOVE:0));
+    }
+
     /**
      * Undo the last move that has been made
      */
     public void undoMove() {
-        Move last = moves.pop();
-        try {
-            grid.undo(last.getX(), last.getY());
-        } catch (Grid.EmptyColumnException | Grid.InvalidCoordinatesException e) {
-            e.printStackTrace();
+        if (ply == 0) {
+            throw new EmptyStackException();
         }
+        grid.undo(moves[--ply] & COLUMN_MASK);
+    }
+
+    /**
+     * Helper methods
+     */
+
+    /**
+     * Get the color that made the move with the specified log entry
+     */
+    private static Color colorOf(byte move) {
+        return (move & YELLOW_MOVE) != 0? Color.YELLOW:Color.RED;
     }
 
     /**
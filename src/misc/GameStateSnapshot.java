@@ -0,0 +1,107 @@
+package misc;
+
+import java.util.List;
+
+/**
+ * Read-only view of a game state at a certain moment (immutable)
+ *
+ * Can be handed out to code that has to look at the game, like the GUI, without giving it a way to alter the game
+ */
+public final class GameStateSnapshot {
+
+    /** Private copy of the game state. Never modified */
+    private final GameState state;
+
+    /**
+     * Create a snapshot of the game state. The state must not be modified after it has been passed
+     */
+    GameStateSnapshot(GameState state) {
+        this.state = state;
+    }
+
+    /**
+     * Queries
+     */
+
+    /**
+     * Check if the grid is full
+     */
+    public boolean gridIsFull() {
+        return state.gridIsFull();
+    }
+
+    /**
+     * Get the color that occupies this coordinate
+     */
+    public Color colorOccupying(int x, int y, int z) {
+        return state.colorOccupying(x, y, z);
+    }
+
+    /**
+     * Get the bitboard of all slots occupied by the specified color
+     */
+    public long getBoard(Color color) {
+        return state.getBoard(color);
+    }
+
+    /**
+     * Get the 64-bit Zobrist key of the grid
+     */
+    public long getZobristKey() {
+        return state.getZobristKey();
+    }
+
+    /**
+     * Get the amount of moves that have been performed
+     */
+    public int getMoveCount() {
+        return state.getMoveCount();
+    }
+
+    /**
+     * Get all moves that have been performed
+     */
+    public List<Move> getMoves() {
+        return state.getMoves();
+    }
+
+    /**
+     * Get the last move that was done on the grid
+     */
+    public Move getLastMove() {
+        return state.getLastMove();
+    }
+
+    /**
+     * Check if the last move won the game
+     */
+    public boolean lastMoveWasWinning() {
+        return state.lastMoveWasWinning();
+    }
+
+    /**
+     * Get a mutable copy of the game state, for example to search on
+     */
+    public GameState toGameState() {
+        return state.deepCopy();
+    }
+
+    /**
+     * Equality of snapshots is only determined by the state of the grid. Not by move history
+     */
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+
+        return state.equals(((GameStateSnapshot) o).state);
+    }
+
+    @Override
+    public int hashCode() {
+        return state.hashCode();
+    }
+
+
+}
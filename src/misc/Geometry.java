@@ -0,0 +1,169 @@
+package misc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Precomputed tables describing the shape of the grid
+ *
+ * Slots are identified by their index (see Grid.slotIndex), which is also their bit in a bitboard. Every coordinate
+ * calculation the engines need is done once here, so the search only does table lookups.
+ *
+ * Lines are all straight rows of Game.CONNECT slots that win the game when they are filled with a single color. They
+ * are numbered 0 to LINES - 1.
+ */
+public final class Geometry {
+
+    /**
+     * Constants
+     */
+
+    /** Amount of slots */
+    public static final int SLOTS = Grid.SLOTS;
+
+    /** Line orientations */
+    public static final int HORIZONTAL = 0;
+    public static final int VERTICAL = 1;
+    /** Diagonal within a level */
+    public static final int FLAT_DIAGONAL = 2;
+    /** Diagonal within an upright plane */
+    public static final int RISING_DIAGONAL = 3;
+    /** Diagonal through all three dimensions */
+    public static final int SPACE_DIAGONAL = 4;
+    /** Amount of orientations */
+    public static final int ORIENTATIONS = 5;
+
+    /**
+     * One direction vector per axis. Opposing vectors describe the same lines
+     */
+    private static final int[][] DIRECTIONS = new int[][]{
+            /** 1D */
+            {1, 0, 0}, {0, 1, 0}, {0, 0, 1},
+            /** 2D */
+            {1, 1, 0}, {1, -1, 0}, {1, 0, 1}, {1, 0, -1}, {0, 1, 1}, {0, 1, -1},
+            /** 3D */
+            {1, 1, 1}, {1, 1, -1}, {1, -1, 1}, {-1, 1, 1}
+    };
+
+    /**
+     * Slot tables, indexed by slot index
+     */
+
+    /** Coordinates of each slot */
+    public static final int[] X_OF = new int[SLOTS];
+    public static final int[] Y_OF = new int[SLOTS];
+    public static final int[] Z_OF = new int[SLOTS];
+
+    /**
+     * Line tables
+     */
+
+    /** Amount of lines */
+    public static final int LINES;
+    /** Slots of each line, in order along the line */
+    public static final int[][] LINE_SLOTS;
+    /** Bitboard mask of each line */
+    public static final long[] LINE_MASKS;
+    /** Orientation of each line */
+    public static final int[] LINE_ORIENTATION;
+    /** Lines through each slot, indexed by slot index */
+    public static final int[][] LINES_AT = new int[SLOTS][];
+    /** Masks of the lines through each slot, in the same order as LINES_AT */
+    private static final long[][] MASKS_AT = new long[SLOTS][];
+
+    static {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            X_OF[slot] = slot % Grid.XRANGE;
+            Y_OF[slot] = slot / Grid.XRANGE % Grid.YRANGE;
+            Z_OF[slot] = slot / Grid.COLUMNS;
+        }
+        /** Enumerate all lines by trying every start slot in every direction */
+        List<int[]> lines = new ArrayList<>();
+        List<Integer> orientations = new ArrayList<>();
+        for (int x = 0; x < Grid.XRANGE; x++) {
+            for (int y = 0; y < Grid.YRANGE; y++) {
+                for (int z = 0; z < Grid.ZRANGE; z++) {
+                    for (int[] d : DIRECTIONS) {
+                        int n = Game.CONNECT - 1;
+                        if (Grid.isValidSlot(x + n * d[0], y + n * d[1], z + n * d[2])) {
+                            int[] line = new int[Game.CONNECT];
+                            for (int i = 0; i < Game.CONNECT; i++) {
+                                line[i] = Grid.slotIndex(x + i * d[0], y + i * d[1], z + i * d[2]);
+                            }
+                            lines.add(line);
+                            orientations.add(orientationOf(d));
+                        }
+                    }
+                }
+            }
+        }
+        LINES = lines.size();
+        LINE_SLOTS = lines.toArray(new int[LINES][]);
+        LINE_MASKS = new long[LINES];
+        LINE_ORIENTATION = new int[LINES];
+        for (int line = 0; line < LINES; line++) {
+            for (int slot : LINE_SLOTS[line]) {
+                LINE_MASKS[line] |= 1L << slot;
+            }
+            LINE_ORIENTATION[line] = orientations.get(line);
+        }
+        /** Group the lines per slot */
+        for (int slot = 0; slot < SLOTS; slot++) {
+            int count = 0;
+            for (long mask : LINE_MASKS) {
+                if ((mask & (1L << slot)) != 0) {
+                    count++;
+                }
+            }
+            LINES_AT[slot] = new int[count];
+            MASKS_AT[slot] = new long[count];
+            count = 0;
+            for (int line = 0; line < LINES; line++) {
+                if ((LINE_MASKS[line] & (1L << slot)) != 0) {
+                    LINES_AT[slot][count] = line;
+                    MASKS_AT[slot][count++] = LINE_MASKS[line];
+                }
+            }
+        }
+    }
+
+    private Geometry() {}
+
+    /**
+     * Queries
+     */
+
+    /**
+     * Check if the board contains a full line through the specified slot
+     * @param board -- Bitboard of a single color
+     * @param slot -- Slot index of the piece that was placed last
+     */
+    public static boolean completesLine(long board, int slot) {
+        for (long mask : MASKS_AT[slot]) {
+            if ((board & mask) == mask) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Helper methods
+     */
+
+    /**
+     * @return the orientation of lines along the direction vector
+     */
+    private static int orientationOf(int[] direction) {
+        int dimensions = Math.abs(direction[0]) + Math.abs(direction[1]) + Math.abs(direction[2]);
+        if (dimensions == 3) {
+            return SPACE_DIAGONAL;
+        } else if (dimensions == 2) {
+            return direction[2] == 0? FLAT_DIAGONAL:RISING_DIAGONAL;
+        } else {
+            return direction[2] == 0? HORIZONTAL:VERTICAL;
+        }
+    }
+
+
+}
@@ -19,23 +19,35 @@ public final class Grid {
     /** Depth of the grid (top view) */
     public static final int ZRANGE = 4;
     /** Amount of slots */
-    private static final int SLOTS = XRANGE * YRANGE * ZRANGE;
+    public static final int SLOTS = XRANGE * YRANGE * ZRANGE;
+
+    /** Amount of columns */
+    public static final int COLUMNS = XRANGE * YRANGE;
 
     /**
      * Instance Variables
      */
 
-    /** Keeps track of piece locations */
-    private final Color[][][] grid;
+    /** Bitboard of the slots occupied by red. Bit i corresponds to slot x + XRANGE * y + XRANGE * YRANGE * z */
+    private long red;
+    /** Bitboard of the slots occupied by yellow */
+    private long yellow;
+    /** Keeps track of the amount of pieces in each column */
+    private final int[] heights;
     /** Counts the amount of pieces in the grid */
     private int pieceCounter;
+    /** Zobrist key of the current piece positions. Updated on every drop and undo */
+    private long zobristKey;
 
     /**
      * Create a new grid
      */
     public Grid() {
-        grid = new Color[XRANGE][YRANGE][ZRANGE];
+        red = 0L;
+        yellow = 0L;
+        heights = new int[COLUMNS];
         pieceCounter = 0;
+        zobristKey = 0L;
 
     }
 
@@ -78,6 +90,34 @@ public final class Grid {
         return isValidX(x) && isValidY(y) && isValidZ(z);
     }
 
+    /**
+     * @return the index of the column at this x,y coordinate
+     */
+    public static int columnIndex(int x, int y) {
+        return x + XRANGE * y;
+    }
+
+    /**
+     * @return the x coordinate of the column with this index
+     */
+    public static int columnX(int column) {
+        return column % XRANGE;
+    }
+
+    /**
+     * @return the y coordinate of the column with this index
+     */
+    public static int columnY(int column) {
+        return column / XRANGE;
+    }
+
+    /**
+     * @return the index of the slot at this x,y,z coordinate. Corresponds to the bit of the slot in a bitboard
+     */
+    public static int slotIndex(int x, int y, int z) {
+        return x + XRANGE * y + XRANGE * YRANGE * z;
+    }
+
     /**
      * Non-Static Queries
      */
@@ -91,12 +131,28 @@ public final class Grid {
      */
     public Color occupiedBy(int x, int y, int z) throws InvalidCoordinatesException {
         if (Grid.isValidSlot(x, y, z)) {
-            return grid[x][y][z];
+            return get(slotIndex(x, y, z));
         } else {
             throw new InvalidCoordinatesException(x, y, z);
         }
     }
 
+    /**
+     * Fast path of occupiedBy. The slot index is not checked
+     * @param slot -- Index of the slot (see slotIndex)
+     * @return The color which occupies the slot. Return null if slot is unoccupied
+     */
+    public Color get(int slot) {
+        long bit = 1L << slot;
+        if ((red & bit) != 0) {
+            return Color.RED;
+        } else if ((yellow & bit) != 0) {
+            return Color.YELLOW;
+        } else {
+            return null;
+        }
+    }
+
     /**
      * Checks if the specified column is full
      * @param x -- x coordinate of the column
@@ -105,12 +161,26 @@ public final class Grid {
      */
     public boolean isFull(int x, int y) throws InvalidCoordinatesException {
         if (Grid.isValidColumn(x, y)) {
-            return grid[x][y][ZRANGE - 1] == null;
+            return heights[columnIndex(x, y)] == ZRANGE;
         } else {
             throw new InvalidCoordinatesException(x, y);
         }
     }
 
+    /**
+     * @return the amount of pieces in the column with the specified index. The index is not checked
+     */
+    public int heightOf(int column) {
+        return heights[column];
+    }
+
+    /**
+     * @return if a piece can be dropped in the column with the specified index. The index is not checked
+     */
+    public boolean canDrop(int column) {
+        return heights[column] < ZRANGE;
+    }
+
     /**
      * Checks if the entire grid is filled
      * @return if every slot is occupied
@@ -119,17 +189,44 @@ public final class Grid {
         return pieceCounter == SLOTS;
     }
 
+    /**
+     * @return a mask with bit i set if column i is not full. A column is not full if its top slot is empty
+     */
+    public int getPlayableColumns() {
+        return (int) (~(red | yellow) >>> (SLOTS - COLUMNS));
+    }
+
+    /**
+     * @return the bitboard of all slots occupied by the specified color
+     */
+    public long getBoard(Color color) {
+        return color == Color.RED? red:yellow;
+    }
+
+    /**
+     * @return the bitboard of all occupied slots
+     */
+    public long getOccupied() {
+        return red | yellow;
+    }
+
+    /**
+     * @return the 64-bit Zobrist key of the current piece positions
+     */
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
     /**
      * Get a new grid instance with the same piece positions
      */
     public Grid deepCopy() {
         Grid copy = new Grid();
-        for (int x = 0; x < XRANGE; x++) {
-            for (int y = 0; y < YRANGE; y++) {
-                System.arraycopy(this.grid[x][y], 0, copy.grid[x][y], 0, ZRANGE);
-            }
-        }
+        copy.red = this.red;
+        copy.yellow = this.yellow;
+        System.arraycopy(this.heights, 0, copy.heights, 0, COLUMNS);
         copy.pieceCounter = this.pieceCounter;
+        copy.zobristKey = this.zobristKey;
         return copy;
     }
 
@@ -145,51 +242,83 @@ public final class Grid {
      */
     public int drop(Color color, int x, int y) throws FullColumnException, InvalidCoordinatesException {
         if (Grid.isValidColumn(x, y)) {
-            for (int z = 0; z < ZRANGE; z++) {
-                if (grid[x][y][z] == null) {
-                    grid[x][y][z] = color;
-                    pieceCounter++;
-                    return z;
-                }
+            int column = columnIndex(x, y);
+            if (!canDrop(column)) {
+                throw new FullColumnException(x, y);
             }
-            throw new FullColumnException(x, y);
+            return drop(color, column);
         } else {
             throw new InvalidCoordinatesException(x, y);
         }
     }
 
     /**
-     * Undo the last move made in this column. Return a boolean indicating if a move has been undone
+     * Fast path of drop. The column is not checked, the caller has to make sure a piece can be dropped in it
+     * @param color -- Color of the player making the move
+     * @param column -- Index of the column the piece is dropped in (see columnIndex)
+     * @return the z coordinate in which the piece landed
+     */
+    public int drop(Color color, int column) {
+        int z = heights[column];
+        int slot = column + COLUMNS * z;
+        long bit = 1L << slot;
+        if (color == Color.RED) {
+            red |= bit;
+            zobristKey ^= ZOBRIST_TABLE[slot][REDINDEX];
+        } else {
+            yellow |= bit;
+            zobristKey ^= ZOBRIST_TABLE[slot][YELINDEX];
+        }
+        heights[column] = z + 1;
+        pieceCounter++;
+        return z;
+    }
+
+    /**
+     * Undo the last move made in this column
      * @param x -- Column x coordinate
      * @param y -- Column y coordinate
      */
     public void undo(int x, int y) throws EmptyColumnException, InvalidCoordinatesException {
         if (Grid.isValidColumn(x, y)) {
-            for (int z = ZRANGE - 1; z >= 0; z--) {
-                if (grid[x][y][z] != null) {
-                    grid[x][y][z] = null;
-                    pieceCounter--;
-                    return;
-                }
+            int column = columnIndex(x, y);
+            if (heights[column] == 0) {
+                throw new EmptyColumnException(x, y);
             }
-            throw new EmptyColumnException(x, y);
+            undo(column);
         } else {
             throw new InvalidCoordinatesException(x, y);
         }
     }
 
+    /**
+     * Fast path of undo. The column is not checked, the caller has to make sure it is not empty
+     * @param column -- Index of the column (see columnIndex)
+     */
+    public void undo(int column) {
+        int z = heights[column] - 1;
+        int slot = column + COLUMNS * z;
+        long bit = 1L << slot;
+        if ((red & bit) != 0) {
+            red &= ~bit;
+            zobristKey ^= ZOBRIST_TABLE[slot][REDINDEX];
+        } else {
+            yellow &= ~bit;
+            zobristKey ^= ZOBRIST_TABLE[slot][YELINDEX];
+        }
+        heights[column] = z;
+        pieceCounter--;
+    }
+
     /**
      * Clears the entire grid
      */
     public void reset() {
-        for (int x = 0; x < XRANGE; x++) {
-            for (int y = 0; y < YRANGE; y++) {
-                for (int z = 0; z < ZRANGE; z++) {
-                    grid[x][y][z] = null;
-                }
-            }
-        }
+        red = 0L;
+        yellow = 0L;
+        Arrays.fill(heights, 0);
         pieceCounter = 0;
+        zobristKey = 0L;
     }
 
     /**
@@ -203,7 +332,7 @@ public final class Grid {
 
         Grid that = (Grid) o;
 
-        return Arrays.deepEquals(grid, that.grid);
+        return red == that.red && yellow == that.yellow;
     }
 
     /**
@@ -213,31 +342,28 @@ public final class Grid {
     private static final int REDINDEX = 0;
     private static final int YELINDEX = 1;
 
-    private static final int[][] ZOBRIST_TABLE;
+    /** Seed used when the grid.zobrist.seed system property is not set */
+    private static final long DEFAULT_ZOBRIST_SEED = 0x3DC4L;
+    /** Seed of the Zobrist keys. Fixed so hashes (and with them searches) are reproducible between runs */
+    public static final long ZOBRIST_SEED = Long.getLong("grid.zobrist.seed", DEFAULT_ZOBRIST_SEED);
+
+    private static final long[][] ZOBRIST_TABLE;
     static {
-        Random random = new Random();
-        ZOBRIST_TABLE = new int[SLOTS][2];
+        Random random = new Random(ZOBRIST_SEED);
+        ZOBRIST_TABLE = new long[SLOTS][2];
         for (int i = 0; i < SLOTS; i++) {
             for (int j = 0; j < 2; j++) {
-                ZOBRIST_TABLE[i][j] = random.nextInt();
+                ZOBRIST_TABLE[i][j] = random.nextLong();
             }
         }
     }
 
+    /**
+     * Folds the incrementally maintained Zobrist key. Use getZobristKey for the full 64 bits
+     */
     @Override
     public int hashCode() {
-        int h = 0;
-        for (int x = 0; x < XRANGE; x++) {
-            for (int y = 0; y < YRANGE; y++) {
-                for (int z = 0; z < ZRANGE; z++) {
-                    Color c = grid[x][y][z];
-                    if (c != null) {
-                        h ^= ZOBRIST_TABLE[x + XRANGE * y + XRANGE * YRANGE * z][c == Color.RED? REDINDEX:YELINDEX];
-                    }
-                }
-            }
-        }
-        return h;
+        return (int) (zobristKey ^ (zobristKey >>> 32));
     }
 
 
@@ -0,0 +1,149 @@
+package misc;
+
+import misc.player.computer.strategy.Strategy;
+
+/**
+ * Performance test of move generation and make/unmake
+ *
+ * Counts the leaf nodes of the game tree below a position up to a given depth, without any evaluation. Positions in
+ * which the last move won the game are not expanded, so they only count as a leaf when they lie at the full depth.
+ *
+ * The counts of the reference positions are known. A mismatch means move generation, doMove, undoMove or the win
+ * check has changed behaviour.
+ */
+public final class Perft {
+
+    /**
+     * Constants
+     */
+
+    /** Columns (x, y) of the moves leading to the reference positions. Red moves first */
+    private static final int[][][] POSITIONS = new int[][][]{
+            /** Empty grid */
+            {},
+            /** Opening */
+            {{0, 0}, {3, 3}, {3, 0}, {0, 3}},
+            /** Middlegame, one column is full */
+            {{0, 0}, {3, 3}, {3, 0}, {0, 3}, {1, 0}, {2, 0}, {1, 3}, {1, 1},
+             {1, 0}, {1, 1}, {1, 1}, {2, 2}, {2, 3}, {2, 2}, {1, 0}, {1, 0}}
+    };
+
+    /** Names of the reference positions */
+    private static final String[] NAMES = new String[]{"empty", "opening", "middlegame"};
+
+    /** Known leaf counts of the reference positions, per depth starting at depth 1 */
+    private static final long[][] REFERENCE = new long[][]{
+            {16L, 256L, 4096L, 65536L, 1048560L, 16775760L},
+            {16L, 256L, 4096L, 65052L, 1033924L, 16325814L},
+            {15L, 224L, 3331L, 49328L, 719298L, 10532808L}
+    };
+
+    private Perft() {}
+
+    /**
+     * Queries
+     */
+
+    /**
+     * @return the amount of reference positions
+     */
+    public static int positions() {
+        return POSITIONS.length;
+    }
+
+    /**
+     * @return the name of the reference position
+     */
+    public static String name(int position) {
+        return NAMES[position];
+    }
+
+    /**
+     * @return a new game state in the reference position
+     */
+    public static GameState state(int position) {
+        GameState state = new GameState();
+        Color color = Color.RED;
+        for (int[] column : POSITIONS[position]) {
+            state.doMove(color, column[0], column[1]);
+            color = color.other();
+        }
+        return state;
+    }
+
+    /**
+     * @return the color that has to make the next move in the reference position
+     */
+    public static Color toMove(int position) {
+        return POSITIONS[position].length % 2 == 0? Color.RED:Color.YELLOW;
+    }
+
+    /**
+     * @return the known leaf count of the reference position at the specified depth, or -1 if it is not known
+     */
+    public static long reference(int position, int depth) {
+        return depth >= 1 && depth <= REFERENCE[position].length? REFERENCE[position][depth - 1]:-1;
+    }
+
+    /**
+     * Count the leaf nodes below the game state. Moves are generated into a buffer per ply, like the engines do
+     * @param state -- Game state to count from. Is left unchanged
+     * @param depth -- Amount of moves to look ahead
+     * @param color -- Color that has to make the next move
+     * @return the amount of nodes at the specified depth
+     */
+    public static long perft(GameState state, int depth, Color color) {
+        return perft(state, depth, color, new int[Math.max(0, depth)][Grid.COLUMNS]);
+    }
+
+    /**
+     * Count the leaf nodes of all reference positions up to the specified depth (default 6), report the speed and
+     * compare the counts with the known values
+     */
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0? Integer.parseInt(args[0]):REFERENCE[0].length;
+        boolean passed = true;
+        for (int position = 0; position < positions(); position++) {
+            GameState state = state(position);
+            for (int depth = 1; depth <= maxDepth; depth++) {
+                long start = System.nanoTime();
+                long nodes = perft(state, depth, toMove(position));
+                long time = Math.max(1, System.nanoTime() - start);
+                long expected = reference(position, depth);
+                String result = expected < 0? "unknown":expected == nodes? "ok":String.format("FAILED, expected %d", expected);
+                passed &= expected < 0 || expected == nodes;
+                System.out.println(String.format("%-10s depth %2d: %12d nodes in %8.1f ms (%6.2f Mnodes/s) %s",
+                        name(position), depth, nodes, time / 1e6, nodes * 1e3 / time, result));
+            }
+        }
+        System.out.println(passed? "All counts match":"Counts do not match");
+    }
+
+    /**
+     * Helper methods
+     */
+
+    /**
+     * Count the leaf nodes below the game state
+     * @param buffers -- Move buffer for every ply, the buffer of this node is at index depth - 1
+     */
+    private static long perft(GameState state, int depth, Color color, int[][] buffers) {
+        if (depth == 0) {
+            return 1;
+        }
+        if (state.lastMoveWasWinning()) {
+            return 0;
+        }
+        long nodes = 0;
+        int[] moves = buffers[depth - 1];
+        int count = Strategy.generatePossibleMoves(state, moves);
+        for (int i = 0; i < count; i++) {
+            state.doMove(color, moves[i]);
+            nodes += perft(state, depth - 1, color.other(), buffers);
+            state.undoMove();
+        }
+        return nodes;
+    }
+
+
+}
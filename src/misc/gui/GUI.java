@@ -1,6 +1,6 @@
 package misc.gui;
 
-import misc.GameState;
+import misc.GameStateSnapshot;
 
 import javax.swing.*;
 import java.awt.*;
@@ -32,7 +32,7 @@ public class GUI extends JFrame {
     }
 
 
-    public void update(GameState gameState){
+    public void update(GameStateSnapshot gameState){
         try {
             Thread.sleep(50);
         } catch (InterruptedException e) {
@@ -1,6 +1,6 @@
 package misc.gui;
 
-import misc.GameState;
+import misc.GameStateSnapshot;
 import misc.Grid;
 
 import javax.swing.*;
@@ -10,9 +10,9 @@ import java.awt.*;
  * Created by Rogier on 18-11-16 in Enschede.
  */
 public class GUIPanel extends JPanel {
-    private GameState gameState;
+    private final GameStateSnapshot gameState;
 
-    public GUIPanel(GameState gameState) {
+    public GUIPanel(GameStateSnapshot gameState) {
         this.gameState = gameState;
     }
 
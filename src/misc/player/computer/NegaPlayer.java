@@ -3,12 +3,9 @@ package misc.player.computer;
 import misc.Color;
 import misc.GameState;
 import misc.Move;
-import misc.MoveSuggestion;
 import misc.player.computer.strategy.heuristics.SlotHeuristic;
 import misc.player.computer.strategy.minimax.NegaMaxDynamic;
 
-import java.util.List;
-
 /**
  * A computer player utilizing the Negamax algorithm to determine its moves
  */
@@ -27,7 +24,7 @@ public class NegaPlayer extends ComputerPlayer {
             }
 
             @Override
-            protected void orderMoves(List<MoveSuggestion> moves, GameState state) {
+            protected void orderMoves(int[] moves, int count, Color color, GameState state) {
 
             }
 
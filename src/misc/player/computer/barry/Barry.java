@@ -1,21 +1,77 @@
 package misc.player.computer.barry;
 
 import misc.Color;
+import misc.Grid;
 import misc.player.computer.ComputerPlayer;
 
 /**
  *
  */
-public class Barry extends ComputerPlayer {
+public class Barry extends ComputerPlayer implements AutoCloseable {
 
-    public static final int DEPTH = 9;
+    /** Maximum search depth. By default the search is bounded by time instead */
+    public static final int DEPTH = Grid.SLOTS;
+
+    /** Time Barry may think about a move, in milliseconds */
+    public static final long TIME_LIMIT = 5000;
+
+    /** Memory budget of the transposition table in MB */
+    public static final int TT_SIZE = 64;
+
+    /** Amount of threads Barry searches with by default */
+    public static final int THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Search algorithms Barry can use. All of them use the same evaluation, move ordering and transposition table
+     */
+    public enum Search {
+        /** Alpha beta search, every move gets the full window */
+        NEGAMAX,
+        /** Principal variation search (NegaScout), all but the first move are tested with a null window first */
+        PVS,
+        /** MTD(f), the score is approached by a series of null window searches */
+        MTDF
+    }
+
+    /** Search algorithm Barry uses by default */
+    public static final Search SEARCH = Search.PVS;
+
+    /** Barry's search. Owns the helper threads */
+    private final NegaMaxSpaghetti engine;
 
     public Barry(Color color) {
-        super("Barry", color, new NegaMaxSpaghetti(DEPTH, color));
+        this(color, DEPTH, TIME_LIMIT, THREADS);
     }
 
+    /** Barry searching to a fixed depth, regardless of time */
     public Barry(Color color, int depth) {
-        super("Barry", color, new NegaMaxSpaghetti(depth, color));
+        this(color, depth, 0);
+    }
+
+    /** Barry deepening iteratively up to the specified depth until the time limit expires */
+    public Barry(Color color, int depth, long timeLimit) {
+        this(color, depth, timeLimit, 1);
+    }
+
+    /** Barry searching in parallel with the specified amount of threads sharing one transposition table */
+    public Barry(Color color, int depth, long timeLimit, int threads) {
+        this(color, depth, timeLimit, threads, SEARCH);
+    }
+
+    /** Barry searching with the specified algorithm */
+    public Barry(Color color, int depth, long timeLimit, int threads, Search search) {
+        this(color, new NegaMaxSpaghetti(depth, color, TT_SIZE, timeLimit, threads, search));
+    }
+
+    private Barry(Color color, NegaMaxSpaghetti engine) {
+        super("Barry", color, engine);
+        this.engine = engine;
+    }
+
+    /** Stop the threads Barry searches with. Barry can not decide anymore afterwards */
+    @Override
+    public void close() {
+        engine.close();
     }
 
 
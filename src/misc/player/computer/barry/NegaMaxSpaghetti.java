@@ -1,646 +1,319 @@
 package misc.player.computer.barry;
 
 import misc.*;
-import misc.player.computer.strategy.Strategy;
-import misc.player.computer.strategy.minimax.NegaMax;
+import misc.player.computer.strategy.heuristics.Weights;
+import misc.player.computer.strategy.minimax.MoveOrdering;
+import misc.player.computer.strategy.minimax.NegaMaxDynamic;
+import misc.player.computer.strategy.minimax.TranspositionTable;
 import misc.player.human.input.MoveInput;
 
 import java.util.*;
-
-import static misc.Game.CONNECT;
-import static misc.Grid.XRANGE;
-import static misc.Grid.YRANGE;
-import static misc.Grid.ZRANGE;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
+ * Barry's search
  *
+ * Can search with multiple threads (Lazy SMP): helper searches run on their own copy of the game and share the
+ * transposition table with the main search. Only the result of the main search is used. The helper threads keep
+ * running between decisions; call close to stop them when the search is not needed anymore.
  */
-class NegaMaxSpaghetti extends NegaMax {
+class NegaMaxSpaghetti extends NegaMaxDynamic implements AutoCloseable {
+
+    /** Weights of the evaluation. Read from the file named by the barry.weights system property, if set */
+    private static final Weights WEIGHTS = Weights.fromPropertyOrResource("barry.weights", NegaMaxSpaghetti.class, "weights.properties");
 
     /** State that memorizes additional information about the game */
     private final ExtendedGameState extendedState;
-    /** Transposition table. Store game states as hashes */
-    private final HashMap<Integer, TableEntry> tt;
-
-    /** Principal variation transposition table. Keep the scores of the moves under the best move's node. Used for move ordering */
-    private final Map<Integer, Map<Integer, Integer>> pvtt; // TODO -- Benchmark for improvement
+    /** Transposition table. Store game states as hashes. Shared with the helper searches */
+    private final TranspositionTable tt;
+
+    /** Searches that run alongside this search to fill the transposition table */
+    private final NegaMaxSpaghetti[] helpers;
+    /** Threads on which the helpers run */
+    private final ExecutorService executor;
+    /** Amount of places the root moves are rotated, so helpers start in different parts of the tree */
+    private final int rootRotation;
+    /** Scores of the moves that are being ordered */
+    private final int[] orderScores = new int[Grid.COLUMNS];
+    /** Scores of the root moves (by column index) in the last completed iteration. Used to order the next iteration */
+    private final int[] rootScores = new int[Grid.COLUMNS];
+    /** Indicates that an iteration of the running search has completed, so the root scores can be used */
+    private boolean rootScored;
 
     /**
      * Constructor
      */
-    NegaMaxSpaghetti(int depth, Color color) {
-        super(depth, color);
-        extendedState = new ExtendedGameState();
-        tt = new HashMap<>();
+    NegaMaxSpaghetti(int depth, Color color, int ttSize) {
+        this(depth, color, ttSize, 0);
+    }
+
+    /**
+     * Constructor for a strategy that deepens iteratively until the time limit (in milliseconds) expires
+     */
+    NegaMaxSpaghetti(int depth, Color color, int ttSize, long timeLimit) {
+        this(depth, color, ttSize, timeLimit, 1);
+    }
 
-        pvtt = new HashMap<>();
+    /**
+     * Constructor for a strategy that searches using the specified amount of threads
+     */
+    NegaMaxSpaghetti(int depth, Color color, int ttSize, long timeLimit, int threads) {
+        this(depth, color, ttSize, timeLimit, threads, Barry.Search.NEGAMAX);
+    }
+
+    /**
+     * Constructor for a strategy that searches with the specified algorithm using the specified amount of threads
+     */
+    NegaMaxSpaghetti(int depth, Color color, int ttSize, long timeLimit, int threads, Barry.Search algorithm) {
+        this(depth, color, new TranspositionTable(ttSize), timeLimit, threads, 0, algorithm);
+    }
+
+    /**
+     * Constructor for a search sharing the transposition table. Creates threads - 1 helpers
+     */
+    private NegaMaxSpaghetti(int depth, Color color, TranspositionTable tt, long timeLimit, int threads, int rootRotation, Barry.Search algorithm) {
+        super(depth, color, tt, timeLimit);
+        extendedState = new ExtendedGameState();
+        this.tt = tt;
+        this.rootRotation = rootRotation;
+        setScout(algorithm == Barry.Search.PVS);
+        setMTDF(algorithm == Barry.Search.MTDF);
+        this.helpers = new NegaMaxSpaghetti[Math.max(0, threads - 1)];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new NegaMaxSpaghetti(depth, color, tt, timeLimit, 1, i + 1, algorithm);
+        }
+        this.executor = helpers.length > 0? Executors.newFixedThreadPool(helpers.length, runnable -> {
+            Thread thread = new Thread(runnable, "Barry helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
     }
 
     /** Use the extended game state to determine a move */
     @Override
     public MoveInput determineMove(GameState state) {
-        setBestMove(null);
-        /** Apply move of opponent to the extended game state */
-        Move moveByOpponent = state.getLastMove();
-        if (moveByOpponent != null) {
-            extendedState.doMove(moveByOpponent.getColor(), moveByOpponent.getX(), moveByOpponent.getY());
+        /** Apply the moves that have been made since the last decision to the extended game state */
+        synchronize(state);
+        /** Entries of earlier turns are kept, but marked stale */
+        tt.newSearch();
+        /** Start the helpers */
+        startSearch();
+        rootScored = false;
+        List<Future<?>> helping = new ArrayList<>();
+        for (NegaMaxSpaghetti helper : helpers) {
+            helper.startSearch();
+            helping.add(executor.submit(() -> helper.help(state)));
         }
         /** Run the mini-max algorithm */
-        negamax(extendedState, getDepth(), getMaximizingColor(), -Integer.MAX_VALUE, Integer.MAX_VALUE);
-        /** Apply own move to private game copy */
-        extendedState.doMove(getMaximizingColor(), getBestMove().getX(), getBestMove().getY());
-
-        /** Set move ordering for next move */
-        pvtt.clear();
-        /**  - Iterate through all moves that can be made by opponent */
-        for (MoveSuggestion opponentSuggestion : Strategy.generatePossibleMoves(extendedState, getMaximizingColor().other())) {
-            extendedState.doMove(opponentSuggestion.getColor(), opponentSuggestion.getX(), opponentSuggestion.getY());
-            Map<Integer, Integer> optionScores = new HashMap<>();
-            pvtt.put(extendedState.hashCode(), optionScores);
-            /** Store all branches that have already been evaluated */
-            for (MoveSuggestion suggestion : Strategy.generatePossibleMoves(extendedState, getMaximizingColor())) {
-                extendedState.doMove(suggestion.getColor(), suggestion.getX(), suggestion.getY());
-                Integer branchHash = extendedState.hashCode();
-                /** Obtain branch */
-                TableEntry e = tt.get(branchHash);
-                if (e != null) {
-                    optionScores.put(branchHash, e.getValue());
-                }
-                /** Undo move for reuse of grid */
-                extendedState.undoMove();
+        MoveSuggestion decision = iterativeDeepening(extendedState);
+        /** Stop the helpers, their results are not needed anymore */
+        for (NegaMaxSpaghetti helper : helpers) {
+            helper.stop();
+        }
+        for (Future<?> help : helping) {
+            try {
+                help.get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
             }
-            /** Undo move for reuse of grid */
-            extendedState.undoMove();
         }
+        /** Apply own move to private game copy */
+        extendedState.doMove(getMaximizingColor(), decision.getX(), decision.getY());
 
-        /** Reset the transposition table */
-        tt.clear();
         /** Return the decision */
-        return new MoveInput(getBestMove().getX(), getBestMove().getY());
+        return new MoveInput(decision.getX(), decision.getY());
     }
 
-    /** Assign a score to the game state */
+    /** Stop the helper threads. The search can not be used with helpers afterwards */
+    @Override
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Search along with the main search. The result is discarded, only the transposition table entries matter */
+    private void help(GameState state) {
+        synchronize(state);
+        rootScored = false;
+        iterativeDeepening(extendedState);
+    }
+
+    /** Bring the extended game state in line with the specified game state */
+    private void synchronize(GameState state) {
+        List<Move> moves = state.getMoves();
+        List<Move> known = extendedState.getMoves();
+        /** Find the moves both states have in common */
+        int common = 0;
+        while (common < moves.size() && common < known.size() && moves.get(common).equals(known.get(common))) {
+            common++;
+        }
+        /** Undo moves that did not happen, apply moves that did */
+        for (int i = known.size(); i > common; i--) {
+            extendedState.undoMove();
+        }
+        for (Move move : moves.subList(common, moves.size())) {
+            extendedState.doMove(move.getColor(), move.getX(), move.getY());
+        }
+    }
+
+    /** Assign a score to the game state. The extended game state keeps the score up to date, so this is a lookup */
     @Override
     protected int score(GameState state, Color color) {
         if (state instanceof ExtendedGameState) {
-            int score = 0;
-            /** Sum a score for all chains which are winnable */
-            for (Chain chain : ((ExtendedGameState) state).getWinnableChains()) {
-                /** Get the chain length for each color */
-                int redLength = chain.length(Color.RED);
-                int yelLength = chain.length(Color.YELLOW);
-                /** Assign a score to the chain */
-                int redScore = (int) Math.pow(2, redLength);
-                int yelScore = (int) Math.pow(2, yelLength);
-                /** Add score to total */
-                if (color == Color.RED) {
-                    score += redScore;
-                    score -= yelScore;
-                } else {
-                    score -= redScore;
-                    score += yelScore;
-                }
-            }
-            return score;
+            int balance = ((ExtendedGameState) state).balance;
+            return color == Color.RED? balance:-balance;
         }
         return 0;
     }
 
     /** Determine the order in which moves are evaluated */
     @Override
-    protected void orderMoves(List<MoveSuggestion> moves, GameState state) {
+    protected void orderMoves(int[] moves, int count, Color color, GameState state) {
         if (state instanceof ExtendedGameState) {
-            /** Keep a mapping of the direct scores that result from applying the move */
-            Map<MoveSuggestion, Integer> scoreMap = new HashMap<>();
             /** Calculate the direct effect on the grid by applying each move */
-            for (MoveSuggestion suggestion : moves) {
-                scoreMap.put(suggestion, directEffectOf(suggestion, (ExtendedGameState) state));
+            for (int i = 0; i < count; i++) {
+                orderScores[i] = directEffectOf(moves[i], color, (ExtendedGameState) state);
             }
-            /** Sort moves based on their direct effect. Best moves go first */
-            moves.sort((o1, o2) -> {
-                if (scoreMap.get(o1) > scoreMap.get(o2)) {
-                    return -1;
-                } else if (scoreMap.get(o1) < scoreMap.get(o2)) {
-                    return 1;
-                } else {
-                    return 0;
-                }
-            });
+            /** Sort moves based on their direct effect. Best moves go first, equal moves keep their order */
+            MoveOrdering.sortDescending(moves, orderScores, count);
         }
     }
 
-    /** Get the score of the grid after applying the move */
-    private int directEffectOf(MoveSuggestion move, ExtendedGameState state) {
-        state.doMove(move.getColor(), move.getX(), move.getY());
-        int score = score(state, move.getColor());
-        state.undoMove();
-        return score;
-    }
-
-    /** Sort moves based on the principal variation of the previous turn */
-    private void orderMovesByPV(List<MoveSuggestion> moves, ExtendedGameState state) {
-        Map<Integer, Integer> branches = pvtt.get(state.hashCode());
-        if (branches != null) {
-            /** Generate all hashes that result from making the suggested moves. This way scores can be obtained from the transposition table */
-            Map<MoveSuggestion, Integer> hashes = new HashMap<>();
-            for (MoveSuggestion suggestion : moves) {
-                state.doMove(suggestion.getColor(), suggestion.getX(), suggestion.getY());
-                hashes.put(suggestion, state.hashCode());
-                state.undoMove();
-            }
-            /** Put the most promising moves first in the list */
-            Map<MoveSuggestion, Integer> directScores = new HashMap<>(); // Keep a table of direct scores by applying a move so they are only calculated once
-            moves.sort((o1, o2) -> {
-                /** Obtain the values as calculated in the previous call of negamax */
-                Integer value1 = branches.get(hashes.get(o1));
-                Integer value2 = branches.get(hashes.get(o2));
-                /** Compare values */
-                if (value1 != null) {
-                    if (value2 != null) {
-                        /** Both branches have already been evaluated -> check value */
-                        return -Integer.compare(value1, value2); // Results are negated because larger values must appear first in the result
-                    } else {
-                        /** Only branch 1 has been evaluated -> branch 1 > branch 2 */
-                        return 1;
-                    }
-                } else {
-                    if (value2 != null) {
-                        /** Only branch 2 has been evaluated -> branch 1 < branch 2 */
-                        return -1;
-                    } else {
-                        /** Neither branches have been evaluated -> determine score based on direct effect */
-                        if (directScores.containsKey(o1)) {
-                            /** Obtain the direct score from the table */
-                            value1 = directScores.get(o1);
-                        } else {
-                            /** Calculate the score and put it in the table for later use */
-                            int score = directEffectOf(o1, state);
-                            directScores.put(o1, score);
-                            value1 = score;
-                        }
-                        if (directScores.containsKey(o2)) {
-                            /** Obtain the direct score from the table */
-                            value2 = directScores.get(o2);
-                        } else {
-                            /** Calculate the score and put it in the table for later use */
-                            int score = directEffectOf(o2, state);
-                            directScores.put(o2, score);
-                            value2 = score;
-                        }
-                        /** Compare direct scores */
-                        return -Integer.compare(value1, value2);
-                    }
-                }
-            });
-        } else {
-            /** No previous evaluation present. Evaluate by direct effect */
-            orderMoves(moves, state);
-        }
+    /** Get the score of the grid after applying the move, without applying it */
+    private int directEffectOf(int column, Color color, ExtendedGameState state) {
+        int balance = state.balance + state.deltaOf(Grid.slotIndex(Grid.columnX(column), Grid.columnY(column), state.heightOf(column)), color);
+        return color == Color.RED? balance:-balance;
     }
 
     /**
-     * Negamax algorithm
+     * Order the moves of a node. The root moves are sorted by their scores in the previous iteration, or, if those are
+     * not known, the best move found for this position by an earlier search goes first. Helpers start searching
+     * elsewhere. Interior nodes are ordered by the direct effect of their moves, with the best move of an earlier
+     * search of the node first. Killer moves and history do not improve on the direct effect for this evaluation, so
+     * they are not used
      */
-    private int negamax(ExtendedGameState state, int depth, Color color, int alpha, int beta) {
-        int alphaOrig = alpha;
-        /** Check if an equal game state has already been evaluated */
-        TableEntry entry = tt.get(state.hashCode());
-        if (entry != null && entry.getDepth() >= depth) {
-            if (entry.getFlag() == TableEntry.EXACT) {
-                return entry.getValue();
-            } else if (entry.getFlag() == TableEntry.LOWER_BOUND) {
-                alpha = Math.max(alpha, entry.getValue());
-            } else if (entry.getFlag() == TableEntry.UPPER_BOUND) {
-                beta = Math.min(beta, entry.getValue());
-            }
-            if (alpha >= beta) {
-                return entry.getValue();
+    @Override
+    protected void orderNode(int[] moves, int count, int depth, Color color, GameState state, long entry) {
+        orderMoves(moves, count, color, state);
+        if (isRoot(depth) && rootScored) {
+            for (int i = 0; i < count; i++) {
+                orderScores[i] = rootScores[moves[i]];
             }
+            MoveOrdering.sortDescending(moves, orderScores, count);
+        } else if (entry != TranspositionTable.MISS) {
+            MoveOrdering.promote(moves, count, TranspositionTable.move(entry));
         }
-        /** Check base cases */
-        if (state.lastMoveWasWinning()) {
-            return -WIN;
-        }
-        if (depth == 0 || state.gridIsFull()) {
-            return score(state, color);
-        }
-        /** Generate move options */
-        List<MoveSuggestion> moveOptions = Strategy.generatePossibleMoves(state, color);
-        /** Calculate order in which moves should be evaluated */
-        if (depth == this.getDepth()) {
-            /** Use result of previous evaluation to determine order */
-//            orderMoves(moveOptions, state);
-            orderMovesByPV(moveOptions, state);
-        } else {
-            /** Order moves based on recalculated heuristics */
-            orderMoves(moveOptions, state);
+        if (isRoot(depth)) {
+            /** Of moves with equal scores, the best move of the previous iteration goes first */
+            orderRoot(moves, count);
+            rotate(moves, count, rootRotation);
+            /** The root scores are overwritten by this search. They can only be used again once it has completed */
+            rootScored = false;
         }
-        /** Evaluate all possible moves. Minimize loss for maximal result */
-        int bestScore = Integer.MIN_VALUE;
-        for (MoveSuggestion move : moveOptions) {
-            /** Apply move */
-            state.doMove(move.getColor(), move.getX(), move.getY());
-            /** Determine score */
-            int score = -negamax(state, depth - 1, color.other(), -beta, -alpha);
-            /** Compare with previous results */
-            if (bestScore < score) {
-                bestScore = score;
-                if (depth == getDepth()) {
-                    setBestMove(move);
-                }
-            }
-
-            if (depth == getDepth()) {
-                System.out.printf("Rated move %s as %d\n\r", move.toString(), score);
-            }
+    }
 
-            /** Undo move for reuse of grid */
-            state.undoMove();
-            /** Prune! */
-            alpha = Math.max(alpha, score);
-            if (alpha >= beta) {
-                break;
-            }
-        }
-        /** Store state */
-        TableEntry newEntry;
-        if (bestScore <= alphaOrig) {
-            newEntry = new TableEntry(TableEntry.UPPER_BOUND, depth, bestScore);
-        } else if (bestScore >= beta) {
-            newEntry = new TableEntry(TableEntry.LOWER_BOUND, depth, bestScore);
-        } else {
-            newEntry = new TableEntry(TableEntry.EXACT, depth, bestScore);
-        }
-        tt.put(state.hashCode(), newEntry);
+    /** Killer moves and history are not used, so cutoffs are not remembered */
+    @Override
+    protected void cutoff(int depth, Color color, int move, GameState state) {
+    }
 
-        return bestScore;
+    /** Remember the scores of the root moves to order the next iteration */
+    @Override
+    protected void scoredRootMove(int move, int score) {
+        rootScores[move] = score;
     }
 
     /**
-     * Extended Game State class which stores more information of the game
+     * The root scores can be used if the search was complete and exact. After a cutoff, or a failed aspiration or null
+     * window search, the scores are bounds of the wrong depth
      */
-    private class ExtendedGameState extends GameState {
-
-        /** A mapping of all slots to which chains they might contribute */
-        private final ArrayList<Chain>[][][] chains;
-        /** A list of all winnable chains */
-        private final ArrayList<Chain> winnableChains;
-
-        private ExtendedGameState() {
-            winnableChains = new ArrayList<>();
-            /** Initialize the chain mapping */
-            chains = new ArrayList[Grid.XRANGE][Grid.YRANGE][Grid.ZRANGE];
-            for (int x = 0; x < Grid.XRANGE; x++) {
-                for (int y = 0; y < Grid.YRANGE; y++) {
-                    for (int z = 0; z < Grid.ZRANGE; z++) {
-                        chains[x][y][z] = new ArrayList<>();
-                    }
-                }
-            }
-            /** Add horizontal chains along x axis */
-            for (int y = 0; y < YRANGE; y++) {
-                for (int z = 0; z < ZRANGE; z++) {
-                    for (int startIndex = 0; startIndex <= XRANGE - CONNECT; startIndex++) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(i + startIndex, y, z);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                }
-            }
-            /** Add horizontal chains along y axis */
-            for (int x = 0; x < XRANGE; x++) {
-                for (int z = 0; z < ZRANGE; z++) {
-                    for (int startIndex = 0; startIndex <= YRANGE - CONNECT; startIndex++) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(x, i + startIndex, z);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                }
-            }
-            /** Add vertical chains along z axis */
-            for (int x = 0; x < XRANGE; x++) {
-                for (int y = 0; y < YRANGE; y++) {
-                    for (int startIndex = 0; startIndex <= ZRANGE - CONNECT; startIndex++) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(x, y, i + startIndex);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                }
-            }
-            /** Add diagonal chains along xy plane */
-            for (int z = 0; z < ZRANGE; z++) { // TODO -- over y
-                for (int xStart = 0; xStart <= XRANGE - CONNECT; xStart++) {
-                    for (int yStart = 0; yStart <= YRANGE - CONNECT; yStart++) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(xStart + i, yStart + i, z);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                    for (int yStart = YRANGE - 1; yStart >= CONNECT - 1; yStart--) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(xStart + i, yStart - i, z);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                }
-            }
-            /** Add diagonal chains along xz plane */
-            for (int y = 0; y < YRANGE; y++) { // TODO -- over z
-                for (int xStart = 0; xStart <= XRANGE - CONNECT; xStart++) {
-                    for (int zStart = 0; zStart <= ZRANGE - CONNECT; zStart++) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(xStart + i, y, zStart + i);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                    for (int zStart = ZRANGE - 1; zStart >= CONNECT - 1; zStart--) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(xStart + i, y, zStart - i);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                }
-            }
-            /** Add diagonal chains along yz plane */
-            for (int x = 0; x < XRANGE; x++) { // TODO -- over y
-                for (int zStart = 0; zStart <= ZRANGE - CONNECT; zStart++) {
-                    for (int yStart = 0; yStart <= YRANGE - CONNECT; yStart++) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(x, yStart + i, zStart + i);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                    for (int yStart = YRANGE - 1; yStart >= CONNECT - 1; yStart--) {
-                        Coordinate[] slots = new Coordinate[CONNECT];
-                        for (int i = 0; i < CONNECT; i++) {
-                            slots[i] = new Coordinate(x, yStart - i, zStart + i);
-                        }
-                        Chain chain = new Chain(this, slots);
-                        for (Coordinate slot : slots) {
-                            chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-                        }
-                    }
-                }
-            }
-
-            /** Add diagonal chains in xyz space */
-            // TODO -- not just main diagonal
-
-            int x, y, z;
-            Coordinate[] slots;
-            Chain chain;
-
-            x = 0;
-            y = 0;
-            z = 0;
-            slots = new Coordinate[CONNECT];
-            for (int i = 0; i < CONNECT; i++) {
-                slots[i] = new Coordinate(x + i, y + i, z + i);
-            }
-            chain = new Chain(this, slots);
-            for (Coordinate slot : slots) {
-                chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-            }
-
-            x = XRANGE - 1;
-            y = 0;
-            z = 0;
-            slots = new Coordinate[CONNECT];
-            for (int i = 0; i < CONNECT; i++) {
-                slots[i] = new Coordinate(x - i, y + i, z + i);
-            }
-            chain = new Chain(this, slots);
-            for (Coordinate slot : slots) {
-                chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-            }
-
-            x = 0;
-            y = YRANGE - 1;
-            z = 0;
-            slots = new Coordinate[CONNECT];
-            for (int i = 0; i < CONNECT; i++) {
-                slots[i] = new Coordinate(x + i, y - i, z + i);
-            }
-            chain = new Chain(this, slots);
-            for (Coordinate slot : slots) {
-                chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-            }
-
-            x = XRANGE - 1;
-            y = YRANGE - 1;
-            z = 0;
-            slots = new Coordinate[CONNECT];
-            for (int i = 0; i < CONNECT; i++) {
-                slots[i] = new Coordinate(x - i, y - i, z + i);
-            }
-            chain = new Chain(this, slots);
-            for (Coordinate slot : slots) {
-                chains[slot.getX()][slot.getY()][slot.getZ()].add(chain);
-            }
-
+    @Override
+    protected void searchedRoot(boolean exact) {
+        rootScored = exact;
+    }
 
-            /** Set all chains to winnable */
-            for (ArrayList<Chain>[][] i : chains) {
-                for (ArrayList<Chain>[] j : i) {
-                    for (ArrayList<Chain> chains : j) {
-                        winnableChains.addAll(chains);
-                    }
-                }
+    /** Rotate the moves to the left by the specified distance */
+    private static void rotate(int[] moves, int count, int distance) {
+        if (count > 0 && distance % count != 0) {
+            int[] rotated = new int[count];
+            for (int i = 0; i < count; i++) {
+                rotated[i] = moves[(i + distance) % count];
             }
+            System.arraycopy(rotated, 0, moves, 0, count);
+        }
+    }
 
+    /**
+     * Extended Game State class which stores more information of the game
+     *
+     * Every line of Geometry is a chain that could be formed. The amount of pieces of each color in every line is kept
+     * up to date on every move, and so is the score that follows from them.
+     */
+    class ExtendedGameState extends GameState {
+
+        /** Amount of red pieces in each line */
+        private final int[] redCount;
+        /** Amount of yellow pieces in each line */
+        private final int[] yelCount;
+        /** Score of the pieces and winnable lines for red, minus the same score for yellow */
+        private int balance;
+
+        ExtendedGameState() {
+            redCount = new int[Geometry.LINES];
+            yelCount = new int[Geometry.LINES];
+            balance = 0;
         }
 
-        /** Perform a move on the grid. Update chains */
+        /** Perform a move on the grid. Update the lines through the slot */
         @Override
-        public boolean doMove(Color color, int x, int y) {
-            boolean succeeded = super.doMove(color, x, y);
-            if (succeeded) {
-                Move move = getLastMove();
-                List<Chain> affectedChains = chains[move.getX()][move.getY()][move.getZ()];
-                /** Update all affected chains */
-                for (Chain chain : affectedChains) {
-                    if (chain.isWinnable()) {
-                        chain.update();
-                        if (!chain.isWinnable()) {
-                            /** The chain is not winnable anymore. Remove from list */
-                            winnableChains.remove(chain);
-                        }
-                    } else {
-                        /** The chain was not winnable to begin with */
-                        chain.update();
-                    }
-                }
+        public void doMove(Color color, int column) {
+            super.doMove(color, column);
+            int slot = getLastSlot();
+            balance += deltaOf(slot, color);
+            int[] own = color == Color.RED? redCount:yelCount;
+            for (int line : Geometry.LINES_AT[slot]) {
+                own[line]++;
             }
-            return succeeded;
         }
 
-        /** Undo a move on the grid. Update chains */
+        /** Undo a move on the grid. Update the lines through the slot */
         @Override
         public void undoMove() {
-            Move move = getLastMove();
+            int slot = getLastSlot();
+            Color color = colorOccupying(slot);
             super.undoMove();
-            List<Chain> affectedChains = chains[move.getX()][move.getY()][move.getZ()];
-            /** Update all affected chains */
-            for (Chain chain : affectedChains) {
-                if (!chain.isWinnable()) {
-                    chain.update();
-                    if (chain.isWinnable()) {
-                        /** The chain has become winnable. Add to list */
-                        winnableChains.add(chain);
-                    }
-                } else {
-                    /** The chain will remain winnable */
-                    chain.update();
-                }
+            int[] own = color == Color.RED? redCount:yelCount;
+            for (int line : Geometry.LINES_AT[slot]) {
+                own[line]--;
             }
+            balance -= deltaOf(slot, color);
         }
 
-        /** Convenience method */
-        private Color colorOccupying(Coordinate coordinate) {
-            return colorOccupying(coordinate.getX(), coordinate.getY(), coordinate.getZ());
-        }
-
-        /** Get all chains that can still be used to obtain victory */
-        private List<Chain> getWinnableChains() {
-            return winnableChains;
-        }
-
-
-    }
-
-    /**
-     * Points to all colors that could potentially form a chain
-     */
-    private class Chain {
-
-        /** Coordinates of the slots forming this chain */
-        private final Coordinate[] slots;
-        /** GameState in which this chain could be formed */
-        private final ExtendedGameState state;
-        /** Indicates if the chain is winnable by a player */
-        private boolean winnable;
-        /** Amount of red pieces in the chain */
-        private int redCount;
-        /** Amount of yellow pieces in the chain */
-        private int yelCount;
-
-        /** Construct a new chain in a certain GameState, consisting out of the specified slots */
-        private Chain(ExtendedGameState state, Coordinate... slots) {
-            this.slots = slots;
-            this.state = state;
-            this.winnable = true;
-            this.redCount = 0;
-            this.yelCount = 0;
-        }
-
-        /** Update the chain's instance variables */
-        private void update() { // TODO? -- only one slot needs checking
-            redCount = 0;
-            yelCount = 0;
-            winnable = true;
-            for (Coordinate slot : slots) {
-                Color color = state.colorOccupying(slot);
+        /**
+         * Get the change of the balance if a piece of the specified color is put in the slot. Only the lines through
+         * the slot change
+         */
+        private int deltaOf(int slot, Color color) {
+            int delta = color == Color.RED? WEIGHTS.slot(slot):-WEIGHTS.slot(slot);
+            for (int line : Geometry.LINES_AT[slot]) {
+                int red = redCount[line];
+                int yel = yelCount[line];
                 if (color == Color.RED) {
-                    redCount++;
-                } else if (color == Color.YELLOW) {
-                    yelCount++;
+                    delta += valueOf(line, red + 1, yel) - valueOf(line, red, yel);
+                } else {
+                    delta += valueOf(line, red, yel + 1) - valueOf(line, red, yel);
                 }
             }
-            /** Check if both players have pieces in this chain */
-            if (redCount > 0 && yelCount > 0) {
-                winnable = false;
-            }
-        }
-
-        /** Return how many pieces of the specified color are in this chain */
-        private int length(Color color) {
-            switch (color)  {
-                case RED:
-                    return redCount;
-                case YELLOW:
-                    return yelCount;
-                default:
-                    return -1;
-            }
-        }
-
-        /** Return if the chain is winnable by a player */
-        private boolean isWinnable() {
-            return winnable;
-        }
-
-
-    }
-
-    /**
-     * Data structure for storing evaluated moves
-     */
-    private final class TableEntry {
-
-        private static final int UPPER_BOUND = 1;
-        private static final int LOWER_BOUND = -1;
-        private static final int EXACT = 0;
-
-        private final int flag;
-        private final int depth;
-        private final int value;
-
-        TableEntry(int flag, int depth, int value) {
-            this.flag = flag;
-            this.depth = depth;
-            this.value = value;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("TTEntry: Flag %d, Depth %d, Value %d", flag, depth, value);
-        }
-
-        int getFlag() {
-            return flag;
-        }
-
-        int getDepth() {
-            return depth;
+            return delta;
         }
 
-        int getValue() {
-            return value;
+        /** Get the score of a line for red with the specified amounts of pieces. Lines with both colors are worth nothing */
+        private int valueOf(int line, int red, int yel) {
+            return red > 0 && yel > 0? 0:WEIGHTS.line(line) * (WEIGHTS.chain(red) - WEIGHTS.chain(yel));
         }
 
 
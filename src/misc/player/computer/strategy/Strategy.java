@@ -16,9 +16,10 @@ public interface Strategy {
      */
     static List<MoveSuggestion> generatePossibleMoves(GameState state, Color color) {
         ArrayList<MoveSuggestion> moves = new ArrayList<>();
+        int playable = state.getPlayableColumns();
         for (int x = 0; x < Grid.XRANGE; x++) {
             for (int y = 0; y < Grid.YRANGE; y++) {
-                if (state.colorOccupying(x, y, Grid.ZRANGE - 1) == null) {
+                if ((playable & 1 << Grid.columnIndex(x, y)) != 0) {
                     moves.add(new MoveSuggestion(color, x, y));
                 }
             }
@@ -26,6 +27,26 @@ public interface Strategy {
         return moves;
     }
 
+    /**
+     * Obtains all moves that are possible without allocating. Writes the column indices (see Grid.columnIndex) in the
+     * same order as the list version
+     * @param buffer -- Array of at least Grid.COLUMNS elements the moves are written to
+     * @return the amount of moves written to the buffer
+     */
+    static int generatePossibleMoves(GameState state, int[] buffer) {
+        int count = 0;
+        int playable = state.getPlayableColumns();
+        for (int x = 0; x < Grid.XRANGE; x++) {
+            for (int y = 0; y < Grid.YRANGE; y++) {
+                int column = Grid.columnIndex(x, y);
+                if ((playable & 1 << column) != 0) {
+                    buffer[count++] = column;
+                }
+            }
+        }
+        return count;
+    }
+
     /**
      * Determine which move should be made according to this strategy
      * @param state -- Game state upon which the move is based
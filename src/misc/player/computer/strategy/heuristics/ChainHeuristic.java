@@ -2,118 +2,55 @@ package misc.player.computer.strategy.heuristics;
 
 import misc.Color;
 import misc.GameState;
-import misc.Grid;
+
+import static misc.Geometry.LINES;
+import static misc.Geometry.LINE_SLOTS;
 
 /**
  * Score the grid based on chain lengths that have been formed
+ *
+ * Every winning line is scanned, in order along the line. Each run of consecutive pieces of the color is a chain
  */
 public class ChainHeuristic implements Heuristic {
 
-    @Override
-    public int score(GameState state, Color color) {
-        int score = 0;
-        score += direction1(state, color);
-        score += direction2(state, color);
-        score += direction3(state, color);
-        score += direction4(state, color);
-        return score;
-    }
+    /** Weights holding the score per chain length and per line */
+    private final Weights weights;
 
-    private int direction1(GameState state, Color color) {
-        int score = 0;
-        // Iterate through all levels
-        for (int z = 0; z < Grid.ZRANGE; z++) {
-            // Iterate through each row
-            for (int x = 0; x < Grid.XRANGE; x++) {
-                int chain = 0;
-                for (int y = 0; y < Grid.YRANGE; y++) {
-                    if (state.colorOccupying(x, y, z) == color) {
-                        chain++;
-                    } else {
-                        score += scoreForChainOfLength(chain);
-                        chain = 0;
-                    }
-                    if (y == Grid.YRANGE - 1) {
-                        score += scoreForChainOfLength(chain);
-                    }
-                }
-            }
-        }
-        return score;
+    /**
+     * Create a chain heuristic using the default weights, in which a chain is worth its length
+     */
+    public ChainHeuristic() {
+        this(Weights.DEFAULT);
     }
 
-    private int direction2(GameState state, Color color) {
-        int score = 0;
-        // Iterate through all levels
-        for (int z = 0; z < Grid.ZRANGE; z++) {
-            // Iterate through each row
-            for (int y = 0; y < Grid.YRANGE; y++) {
-                int chain = 0;
-                for (int x = 0; x < Grid.XRANGE; x++) {
-                    if (state.colorOccupying(x, y, z) == color) {
-                        chain ++;
-                    } else {
-                        score += scoreForChainOfLength(chain);
-                        chain = 0;
-                    }
-                    if (x == Grid.XRANGE - 1) {
-                        score += scoreForChainOfLength(chain);
-                    }
-                }
-            }
-        }
-        return score;
+    /**
+     * Create a chain heuristic using the chain and line weights
+     */
+    public ChainHeuristic(Weights weights) {
+        this.weights = weights;
     }
 
-    private int direction3(GameState state, Color color) {
+    @Override
+    public int score(GameState state, Color color) {
+        long board = state.getBoard(color);
         int score = 0;
-        for (int x = 0; x < Grid.XRANGE; x++) {
+        for (int line = 0; line < LINES; line++) {
             int chain = 0;
-            for (int y = 0,z = 0; y < Grid.YRANGE && z < Grid.ZRANGE; y++,z++) {
-                if (state.colorOccupying(x, y, z) == color) {
+            for (int slot : LINE_SLOTS[line]) {
+                if ((board & (1L << slot)) != 0) {
                     chain++;
                 } else {
-                    score += scoreForChainOfLength(chain);
+                    score += scoreForChain(line, chain);
                     chain = 0;
                 }
-                if (y < Grid.YRANGE && z < Grid.ZRANGE) {
-
-                }
-            }
-        }
-        return score;
-    }
-
-    private int direction4(GameState state, Color color) {
-        // Check the 4 diagonals
-        int score = 0;
-
-        int chain = 0;
-        for (int x = 0, y = 0, z = 0; x < Grid.XRANGE && y < Grid.YRANGE && z < Grid.ZRANGE; x++, y++, z++) {
-            if (state.colorOccupying(x, y, z) == color) {
-                chain++;
-            } else {
-                score += scoreForChainOfLength(chain);
-                chain = 0;
-            }
-        }
-
-        chain = 0;
-        for (int x = 0, y = Grid.YRANGE - 1, z = 0; x < Grid.XRANGE && y >= 0 && z < Grid.ZRANGE; x++, y--, z++) {
-            if (state.colorOccupying(x, y, z) == color) {
-                chain++;
-            } else {
-                score += scoreForChainOfLength(chain);
-                chain = 0;
             }
+            score += scoreForChain(line, chain);
         }
-
-
         return score;
     }
 
-    private int scoreForChainOfLength(int length) { // TODO -- make function of direction and z as well
-        return length; // TODO
+    private int scoreForChain(int line, int length) {
+        return weights.line(line) * weights.chain(length);
     }
 
 
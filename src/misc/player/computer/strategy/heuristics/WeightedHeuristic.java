@@ -0,0 +1,48 @@
+package misc.player.computer.strategy.heuristics;
+
+import misc.Color;
+import misc.GameState;
+
+import static misc.Geometry.LINES;
+import static misc.Geometry.LINE_MASKS;
+
+/**
+ * Score the grid with all weights of a weight table
+ *
+ * Every line that can still be won by one of the players scores the chain weight of the amount of pieces in it, times
+ * the weight of the line. Every piece scores the weight of its slot. The opponent's scores are subtracted
+ */
+public class WeightedHeuristic implements Heuristic {
+
+    /** Weights of the evaluation */
+    private final Weights weights;
+
+    public WeightedHeuristic(Weights weights) {
+        this.weights = weights;
+    }
+
+    @Override
+    public int score(GameState state, Color color) {
+        long own = state.getBoard(color);
+        long other = state.getBoard(color.other());
+        int score = 0;
+        /** Lines */
+        for (int line = 0; line < LINES; line++) {
+            int ownLength = Long.bitCount(own & LINE_MASKS[line]);
+            int otherLength = Long.bitCount(other & LINE_MASKS[line]);
+            if (ownLength == 0 || otherLength == 0) {
+                score += weights.line(line) * (weights.chain(ownLength) - weights.chain(otherLength));
+            }
+        }
+        /** Slots */
+        for (long board = own; board != 0; board &= board - 1) {
+            score += weights.slot(Long.numberOfTrailingZeros(board));
+        }
+        for (long board = other; board != 0; board &= board - 1) {
+            score -= weights.slot(Long.numberOfTrailingZeros(board));
+        }
+        return score;
+    }
+
+
+}
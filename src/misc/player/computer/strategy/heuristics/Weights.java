@@ -0,0 +1,173 @@
+package misc.player.computer.strategy.heuristics;
+
+import misc.Game;
+import misc.Geometry;
+import misc.Grid;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Properties;
+
+/**
+ * Weights of an evaluation, loaded from a properties file into primitive tables (immutable)
+ *
+ * The file may contain the following keys. Lists are comma separated, missing keys get neutral values.
+ *  - chain: score of a line by the amount of pieces of a color in it, for 0 up to Game.CONNECT pieces (default 0)
+ *  - orientation: multiplier of the chain score per line orientation, in the order of the Geometry constants
+ *    HORIZONTAL, VERTICAL, FLAT_DIAGONAL, RISING_DIAGONAL and SPACE_DIAGONAL (default 1)
+ *  - slot.z: score of a piece in each slot of level z, by column index (default 0)
+ *  - level: score of a piece per level, added to the slot scores (default 0)
+ *
+ * The per orientation and per level values are folded into a weight per line and a weight per slot when loading, so
+ * using the weights costs a single lookup.
+ */
+public final class Weights {
+
+    /**
+     * Constants
+     */
+
+    /** Resource in this package with the default weights */
+    public static final String DEFAULT_RESOURCE = "weights.properties";
+
+    /** Default weights */
+    public static final Weights DEFAULT = fromResource(Weights.class, DEFAULT_RESOURCE);
+
+    /**
+     * Instance variables
+     */
+
+    /** Score of a line by the amount of pieces of a color in it */
+    private final int[] chain;
+    /** Multiplier of the chain score of each line, indexed by line */
+    private final int[] line;
+    /** Score of a piece in each slot, indexed by slot index */
+    private final int[] slot;
+
+    /**
+     * Create weights from the properties
+     */
+    public Weights(Properties properties) {
+        this.chain = list(properties, "chain", Game.CONNECT + 1, 0);
+        int[] orientation = list(properties, "orientation", Geometry.ORIENTATIONS, 1);
+        int[] level = list(properties, "level", Grid.ZRANGE, 0);
+        this.line = new int[Geometry.LINES];
+        for (int line = 0; line < Geometry.LINES; line++) {
+            this.line[line] = orientation[Geometry.LINE_ORIENTATION[line]];
+        }
+        this.slot = new int[Geometry.SLOTS];
+        for (int z = 0; z < Grid.ZRANGE; z++) {
+            int[] columns = list(properties, "slot." + z, Grid.COLUMNS, 0);
+            for (int column = 0; column < Grid.COLUMNS; column++) {
+                this.slot[column + Grid.COLUMNS * z] = columns[column] + level[z];
+            }
+        }
+    }
+
+    /**
+     * Loading
+     */
+
+    /**
+     * Load weights from a properties resource next to the specified class
+     */
+    public static Weights fromResource(Class<?> owner, String name) {
+        try (InputStream in = owner.getResourceAsStream(name)) {
+            if (in == null) {
+                throw new IllegalArgumentException(String.format("Weights resource not found: %s", name));
+            }
+            return load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load weights from a properties file
+     */
+    public static Weights fromFile(String path) throws IOException {
+        try (InputStream in = new FileInputStream(path)) {
+            return load(in);
+        }
+    }
+
+    /**
+     * Load weights from the file named by the system property if it is set, otherwise from the resource next to the
+     * specified class. Allows tuning without recompiling
+     */
+    public static Weights fromPropertyOrResource(String property, Class<?> owner, String name) {
+        String path = System.getProperty(property);
+        if (path == null) {
+            return fromResource(owner, name);
+        }
+        try {
+            return fromFile(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Load weights from a stream in properties format
+     */
+    public static Weights load(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        return new Weights(properties);
+    }
+
+    /**
+     * Queries
+     */
+
+    /**
+     * @return the score of a line with the specified amount of pieces of a color in it
+     */
+    public int chain(int length) {
+        return chain[length];
+    }
+
+    /**
+     * @return the multiplier of the chain score of the line
+     */
+    public int line(int line) {
+        return this.line[line];
+    }
+
+    /**
+     * @return the score of a piece in the slot
+     */
+    public int slot(int slot) {
+        return this.slot[slot];
+    }
+
+    /**
+     * Helper methods
+     */
+
+    /**
+     * Parse a comma separated list of integers
+     * @param fallback -- Value of every element if the key is missing
+     */
+    private static int[] list(Properties properties, String key, int length, int fallback) {
+        int[] values = new int[length];
+        String value = properties.getProperty(key);
+        if (value == null) {
+            Arrays.fill(values, fallback);
+            return values;
+        }
+        String[] elements = value.split(",");
+        if (elements.length != length) {
+            throw new IllegalArgumentException(String.format("%s needs %d values, got %d", key, length, elements.length));
+        }
+        for (int i = 0; i < length; i++) {
+            values[i] = Integer.parseInt(elements[i].trim());
+        }
+        return values;
+    }
+
+
+}
@@ -0,0 +1,46 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.Color;
+
+/**
+ * MTD(f) search driver on top of the alpha beta search with transposition tables
+ *
+ * Instead of a single search with a wide window, the score is approached by a series of null window searches. Every
+ * search proves the score is above or below a test value, which narrows the bounds until they meet. The transposition
+ * table keeps the results of earlier passes, so every pass only searches what has not been proven yet. The first test
+ * value is the score of the previous iteration. The driver itself is part of NegaMax.
+ */
+public abstract class MTDF extends NegaMaxDynamic {
+
+    /**
+     * Create a new MTD(f) search
+     */
+    public MTDF(int depth, Color color) {
+        this(depth, color, TranspositionTable.DEFAULT_SIZE);
+    }
+
+    /**
+     * Create a new MTD(f) search with a transposition table of the specified size (in MB)
+     */
+    public MTDF(int depth, Color color, int ttSize) {
+        this(depth, color, ttSize, 0);
+    }
+
+    /**
+     * Create a new MTD(f) search with a transposition table (size in MB) that deepens iteratively until the time limit
+     * expires
+     */
+    public MTDF(int depth, Color color, int ttSize, long timeLimit) {
+        this(depth, color, new TranspositionTable(ttSize), timeLimit);
+    }
+
+    /**
+     * Create a new MTD(f) search using the specified transposition table, that deepens iteratively until the time limit
+     * expires
+     */
+    public MTDF(int depth, Color color, TranspositionTable tt, long timeLimit) {
+        super(depth, color, tt, timeLimit);
+        setMTDF(true);
+    }
+
+}
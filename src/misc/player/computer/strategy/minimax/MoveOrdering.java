@@ -0,0 +1,180 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.Color;
+import misc.GameState;
+import misc.Grid;
+
+import java.util.Arrays;
+
+/**
+ * Dynamic move ordering from the results of the search so far
+ *
+ * Moves are searched in this order:
+ *  - the best move stored in the transposition table
+ *  - the killer moves of the ply: the last two moves (slots) that caused a beta cutoff at the same ply
+ *  - all other moves, by their history score: how often and how deep the move (color and slot) caused a cutoff
+ * Moves with equal scores keep their order, so a static ordering done beforehand breaks ties.
+ *
+ * An instance is used by a single search thread.
+ */
+public final class MoveOrdering {
+
+    /**
+     * Constants
+     */
+
+    /** Amount of killer moves kept per ply */
+    private static final int KILLERS = 2;
+    /** Order score of the transposition table move */
+    private static final int TT_MOVE_SCORE = Integer.MAX_VALUE;
+    /** Order score of the first killer move. Later killers score one less each */
+    private static final int KILLER_SCORE = Integer.MAX_VALUE - 1;
+    /** History scores are halved when one of them passes this value, so they stay below the killer scores */
+    private static final int HISTORY_LIMIT = 1 << 24;
+
+    /**
+     * Instance variables
+     */
+
+    /** Killer moves per ply, as slots. A column only holds the same move if it has the same height. NO_MOVE if unknown */
+    private final int[][] killers;
+    /** History score per color and slot */
+    private final int[][] history;
+    /** Scores of the moves that are being ordered */
+    private final int[] scores;
+
+    /**
+     * Create a new move ordering without any knowledge
+     */
+    public MoveOrdering() {
+        this.killers = new int[Grid.SLOTS + 1][KILLERS];
+        this.history = new int[2][Grid.SLOTS];
+        this.scores = new int[Grid.COLUMNS];
+        for (int[] ply : killers) {
+            Arrays.fill(ply, TranspositionTable.NO_MOVE);
+        }
+    }
+
+    /**
+     * Commands
+     */
+
+    /**
+     * Order the moves of a node
+     * @param moves -- Column indices of the moves. Reordered in place
+     * @param count -- Amount of moves
+     * @param ply -- Distance of the node to the root
+     * @param color -- Color making the moves
+     * @param ttMove -- Best move stored in the transposition table for the node, or NO_MOVE
+     */
+    public void order(int[] moves, int count, int ply, Color color, GameState state, int ttMove) {
+        int[] colorHistory = history[indexOf(color)];
+        int[] plyKillers = killers[ply];
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int slot = slotOf(move, state);
+            if (move == ttMove) {
+                scores[i] = TT_MOVE_SCORE;
+            } else if (slot == plyKillers[0]) {
+                scores[i] = KILLER_SCORE;
+            } else if (slot == plyKillers[1]) {
+                scores[i] = KILLER_SCORE - 1;
+            } else {
+                scores[i] = colorHistory[slot];
+            }
+        }
+        sortDescending(moves, scores, count);
+    }
+
+    /**
+     * Remember a move that caused a beta cutoff. Has to be called before the move is made
+     * @param ply -- Distance of the node to the root
+     * @param depth -- Depth that was left at the node
+     */
+    public void cutoff(int ply, Color color, int move, GameState state, int depth) {
+        int slot = slotOf(move, state);
+        /** Killer moves */
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != slot) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = slot;
+        }
+        /** History. Deep cutoffs save more work, so they count more */
+        int[] colorHistory = history[indexOf(color)];
+        colorHistory[slot] += depth * depth;
+        if (colorHistory[slot] > HISTORY_LIMIT) {
+            age();
+        }
+    }
+
+    /**
+     * Prepare for a new search. Killer moves belong to the old position and are forgotten. History is kept, but
+     * counts less
+     */
+    public void newSearch() {
+        for (int[] ply : killers) {
+            Arrays.fill(ply, TranspositionTable.NO_MOVE);
+        }
+        age();
+    }
+
+    /**
+     * Helper methods
+     */
+
+    /**
+     * Halve all history scores
+     */
+    private void age() {
+        for (int[] colorHistory : history) {
+            for (int slot = 0; slot < colorHistory.length; slot++) {
+                colorHistory[slot] /= 2;
+            }
+        }
+    }
+
+    /**
+     * @return the slot a piece dropped in the column would land in
+     */
+    private static int slotOf(int column, GameState state) {
+        return column + Grid.COLUMNS * state.heightOf(column);
+    }
+
+    private static int indexOf(Color color) {
+        return color == Color.RED? 0:1;
+    }
+
+    /**
+     * Put the specified move in front, keeping the order of the other moves. Nothing happens if it is not one of the
+     * moves
+     */
+    public static void promote(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                System.arraycopy(moves, 0, moves, 1, i);
+                moves[0] = move;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Stable insertion sort of the moves by score, highest score first. Sorts the scores along
+     */
+    public static void sortDescending(int[] moves, int[] scores, int count) {
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                moves[j + 1] = moves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            moves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+    }
+
+
+}
@@ -4,29 +4,71 @@ import misc.*;
 import misc.player.computer.strategy.Strategy;
 import misc.player.human.input.MoveInput;
 
-import java.util.List;
-
 /**
  * Negamax strategy implementation
+ *
+ * Searches to a fixed depth, or, when a time limit is set, deepens iteratively (depth 1, 2, 3...) until the time limit
+ * expires. In that case the result of the deepest completed iteration is used.
+ *
+ * If the search uses its window (see usesWindow), the root is searched with an aspiration window around the score of
+ * the previous iteration, or of the previous decision. If the score falls outside the window, the window is widened on that side and the root is searched again.
+ * Alternatively the root is searched with MTD(f): the expected score is the first of a series of null window searches
+ * that converge on the score.
  */
 public abstract class NegaMax implements Strategy {
 
     /** Score for winning game */
     protected static final int WIN = 10000;
+    /** Amount of nodes that are visited between two checks of the clock */
+    protected static final int CLOCK_INTERVAL = 256;
+    /** Distance between the expected score and the bounds of the first aspiration window */
+    private static final int ASPIRATION_WINDOW = 16;
+    /** Factor by which the aspiration window grows every time the score falls outside of it */
+    private static final int ASPIRATION_GROWTH = 4;
 
     /** Color of maximizing player */
     private final Color maximizingColor;
     /** How many moves this strategy will look ahead */
     private int depth;
+    /** Amount of milliseconds a search may take. Zero means the search is only bounded by depth */
+    private long timeLimit;
     /** Store best move globally */
     private MoveSuggestion bestMove;
 
+    /** Depth of the iteration that is being searched */
+    private int rootDepth;
+    /** Best move of the previous iteration. Searched first in the next iteration */
+    private MoveSuggestion previousBestMove;
+    /** Score of the last completed iteration. Center of the next aspiration window */
+    private int previousScore;
+    /** Indicates that an iteration has been completed, so the previous score is known */
+    private boolean scored;
+    /** Indicates that the root is searched with MTD(f) instead of an aspiration window */
+    private boolean mtdf;
+    /** Move buffer for every ply, so move generation does not allocate */
+    private final int[][] moveBuffers;
+    /** Moment (in milliseconds) at which the search has to stop */
+    private long deadline;
+    /** Counts nodes until the clock has to be checked again. Only used by the searching thread */
+    private int clock;
+    /** Indicates that the running search has to be abandoned */
+    private volatile boolean stopped;
+
     /**
      * Create a new negamax strategy
      */
     public NegaMax(int depth, Color color) {
+        this(depth, color, 0);
+    }
+
+    /**
+     * Create a new negamax strategy that deepens iteratively until the time limit (in milliseconds) expires
+     */
+    public NegaMax(int depth, Color color, long timeLimit) {
         this.depth = Math.max(1, depth);
         this.maximizingColor = color;
+        this.timeLimit = Math.max(0, timeLimit);
+        this.moveBuffers = new int[Grid.SLOTS + 1][Grid.COLUMNS];
     }
 
     /**
@@ -36,23 +78,164 @@ public abstract class NegaMax implements Strategy {
 
     /**
      * Option to explore certain moves first
+     * @param moves -- Column indices of the moves (see Grid.columnIndex). Reordered in place
+     * @param count -- Amount of moves in the buffer
+     * @param color -- Color making the moves
      */
-    protected abstract void orderMoves(List<MoveSuggestion> moves, GameState state);
+    protected abstract void orderMoves(int[] moves, int count, Color color, GameState state);
 
     /**
      * Run the negamax algorithm to determine the best move
      */
     @Override
     public MoveInput determineMove(GameState state) {
-        setBestMove(null);
-        negamax(state, depth, maximizingColor);
-        return new MoveInput(bestMove.getX(), bestMove.getY());
+        startSearch();
+        MoveSuggestion move = iterativeDeepening(state);
+        return new MoveInput(move.getX(), move.getY());
+    }
+
+    /**
+     * Start the clock and clear the stop signal. Has to be called before iterativeDeepening
+     */
+    protected final void startSearch() {
+        stopped = false;
+        clock = 0;
+        deadline = System.currentTimeMillis() + timeLimit;
+    }
+
+    /**
+     * Search the game state with increasing depth until the maximum depth is reached, the time is up or the search is
+     * stopped
+     * @return the best move of the deepest completed iteration
+     */
+    protected final MoveSuggestion iterativeDeepening(GameState state) {
+        previousBestMove = null;
+        /** Without time limit only the maximum depth is searched. Otherwise never look further than the grid allows */
+        int maxDepth = depth;
+        int firstDepth = depth;
+        if (timeLimit > 0) {
+            maxDepth = Math.min(depth, Grid.SLOTS - state.getMoveCount());
+            firstDepth = 1;
+        }
+        MoveSuggestion decision = null;
+        for (int d = firstDepth; d <= maxDepth; d++) {
+            rootDepth = d;
+            /**
+             * The score of depth 1 says little about deeper searches. Its own search is cheap, so it gets the full
+             * window. Deeper iterations expect the score of the previous iteration or, for the first, the previous
+             * decision. A search that ignores the window would only repeat itself, so it always gets the full window
+             */
+            int score;
+            if (mtdf && usesWindow()) {
+                score = mtdf(state, d, scored? previousScore:0);
+            } else if (usesWindow() && scored && d > 1 && Math.abs(previousScore) < WIN) {
+                score = aspirationSearch(state, d, previousScore);
+            } else {
+                setBestMove(null);
+                score = search(state, d, maximizingColor, -Integer.MAX_VALUE, Integer.MAX_VALUE);
+            }
+            if (stopped) {
+                /** Results of an unfinished iteration are only used if nothing else is available */
+                if (decision == null) {
+                    decision = getBestMove();
+                }
+                break;
+            }
+            decision = getBestMove();
+            previousBestMove = decision;
+            previousScore = score;
+            scored = true;
+            /** The outcome of the game is certain, searching deeper will not change it */
+            if (Math.abs(score) >= WIN) {
+                break;
+            }
+        }
+        setBestMove(decision);
+        return decision;
+    }
+
+    /**
+     * Search the root with a window around the expected score. Widen the window and search again until the score falls
+     * within it
+     * @return the score of the game state for the maximizing color
+     */
+    private int aspirationSearch(GameState state, int depth, int expected) {
+        int window = ASPIRATION_WINDOW;
+        int alpha = expected - window;
+        int beta = expected + window;
+        while (true) {
+            setBestMove(null);
+            int score = search(state, depth, maximizingColor, alpha, beta);
+            if (stopped) {
+                return score;
+            }
+            /** The search only proved a bound. Widen the window on that side, past the bound */
+            window *= ASPIRATION_GROWTH;
+            if (score <= alpha && alpha > -Integer.MAX_VALUE) {
+                alpha = window < WIN? score - window:-Integer.MAX_VALUE;
+            } else if (score >= beta && beta < Integer.MAX_VALUE) {
+                beta = window < WIN? score + window:Integer.MAX_VALUE;
+            } else {
+                return score;
+            }
+        }
+    }
+
+    /**
+     * MTD(f). Converge on the score with null window searches, starting at the expected score. Every search proves the
+     * score is above or below a test value, which narrows the bounds until they meet. Only pays off if the search keeps
+     * the results of earlier passes in a transposition table
+     * @return the score of the game state for the maximizing color
+     */
+    private int mtdf(GameState state, int depth, int expected) {
+        int lowerBound = -Integer.MAX_VALUE;
+        int upperBound = Integer.MAX_VALUE;
+        int score = expected;
+        /** The best move of a pass is only reliable if the pass proved the score is at least the test value */
+        MoveSuggestion best = null;
+        while (lowerBound < upperBound) {
+            int test = Math.max(score, lowerBound + 1);
+            setBestMove(null);
+            score = search(state, depth, maximizingColor, test - 1, test);
+            if (stopped) {
+                break;
+            }
+            if (score < test) {
+                upperBound = score;
+            } else {
+                lowerBound = score;
+                best = getBestMove();
+            }
+        }
+        if (best != null) {
+            setBestMove(best);
+        }
+        return score;
+    }
+
+    /**
+     * Search the game state to the specified depth. Sets the best move when called at the root
+     * @return the score of the game state for the specified color
+     */
+    protected int search(GameState state, int depth, Color color, int alpha, int beta) {
+        return negamax(state, depth, color);
+    }
+
+    /**
+     * @return if the search prunes with the alpha beta window. Plain negamax does not, so it always returns the exact score
+     */
+    protected boolean usesWindow() {
+        return false;
     }
 
     /**
      * Negamax algorithm
      */
     private int negamax(GameState state, int depth, Color color)   {
+        /** Check if the search has to be abandoned */
+        if (outOfTime()) {
+            return 0;
+        }
         /** Check base cases */
         if (state.lastMoveWasWinning()) {
             return -WIN;
@@ -61,29 +244,112 @@ public abstract class NegaMax implements Strategy {
             return score(state, color);
         }
         /** Generate move options */
-        List<MoveSuggestion> moveOptions = Strategy.generatePossibleMoves(state, color);
+        int[] moveOptions = moveBuffer(depth);
+        int count = Strategy.generatePossibleMoves(state, moveOptions);
         /** Calculate order in which moves should be evaluated */
-        orderMoves(moveOptions, state);
+        orderMoves(moveOptions, count, color, state);
+        if (isRoot(depth)) {
+            orderRoot(moveOptions, count);
+        }
         /** Evaluate all possible moves. Minimize loss for maximal result */
         int bestScore = Integer.MIN_VALUE;
-        for (MoveSuggestion move : moveOptions) {
+        for (int i = 0; i < count; i++) {
+            int move = moveOptions[i];
             /** Apply move */
-            state.doMove(move.getColor(), move.getX(), move.getY());
+            state.doMove(color, move);
             /** Determine score */
             int score = -negamax(state, depth - 1, color.other());
+            /** Undo move for reuse of grid */
+            state.undoMove();
+            /** The score is meaningless if the search was abandoned */
+            if (isStopped()) {
+                return 0;
+            }
             /** Compare with previous results */
             if (bestScore < score) {
                 bestScore = score;
-                if (depth == this.depth) {
-                    this.bestMove = move;
+                if (isRoot(depth)) {
+                    setBestMove(color, move);
                 }
             }
-            /** Undo move for reuse of grid */
-            state.undoMove();
         }
         return bestScore;
     }
 
+    /**
+     * Search control
+     */
+
+    /**
+     * @return if a node at the specified depth is the root of the current iteration
+     */
+    protected final boolean isRoot(int depth) {
+        return depth == rootDepth;
+    }
+
+    /**
+     * @return the distance to the root of a node at the specified depth
+     */
+    protected final int ply(int depth) {
+        return rootDepth - depth;
+    }
+
+    /**
+     * @return the move buffer for a node at the specified depth. Every ply has its own buffer, so a buffer stays
+     * intact while the moves of the node are searched
+     */
+    protected final int[] moveBuffer(int depth) {
+        return moveBuffers[ply(depth)];
+    }
+
+    /**
+     * Put the best move of the previous iteration in front, keeping the order of the other moves
+     */
+    protected final void orderRoot(int[] moves, int count) {
+        if (previousBestMove != null) {
+            MoveOrdering.promote(moves, count, Grid.columnIndex(previousBestMove.getX(), previousBestMove.getY()));
+        }
+    }
+
+    /**
+     * Check the clock once every CLOCK_INTERVAL calls. Not thread safe, searches running on multiple threads count
+     * their own calls and use checkClock instead
+     * @return if the search has to be abandoned
+     */
+    protected final boolean outOfTime() {
+        if (++clock >= CLOCK_INTERVAL) {
+            clock = 0;
+            return checkClock();
+        }
+        return stopped;
+    }
+
+    /**
+     * Check the clock. The first iteration is never interrupted by the clock, so a move is always available. Can be
+     * called from multiple threads
+     * @return if the search has to be abandoned
+     */
+    protected final boolean checkClock() {
+        if (!stopped && timeLimit > 0 && rootDepth > 1 && System.currentTimeMillis() >= deadline) {
+            stopped = true;
+        }
+        return stopped;
+    }
+
+    /**
+     * Signal the running search to stop. Can be called from another thread
+     */
+    protected final void stop() {
+        stopped = true;
+    }
+
+    /**
+     * @return if the running search has been abandoned
+     */
+    protected final boolean isStopped() {
+        return stopped;
+    }
+
     /**
      * Getters and Setters
      */
@@ -96,6 +362,10 @@ public abstract class NegaMax implements Strategy {
         return depth;
     }
 
+    public long getTimeLimit() {
+        return timeLimit;
+    }
+
     public Color getMaximizingColor() {
         return maximizingColor;
     }
@@ -104,8 +374,26 @@ public abstract class NegaMax implements Strategy {
         this.depth = Math.max(1, depth);
     }
 
+    public void setTimeLimit(long timeLimit) {
+        this.timeLimit = Math.max(0, timeLimit);
+    }
+
+    /**
+     * Search the root with MTD(f), or with an aspiration window
+     */
+    protected final void setMTDF(boolean mtdf) {
+        this.mtdf = mtdf;
+    }
+
     protected void setBestMove(MoveSuggestion bestMove) {
         this.bestMove = bestMove;
     }
 
+    /**
+     * Set the best move from the column index it is made in
+     */
+    protected final void setBestMove(Color color, int column) {
+        setBestMove(new MoveSuggestion(color, Grid.columnX(column), Grid.columnY(column)));
+    }
+
 }
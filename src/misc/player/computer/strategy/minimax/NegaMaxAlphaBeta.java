@@ -2,9 +2,6 @@ package misc.player.computer.strategy.minimax;
 
 import misc.*;
 import misc.player.computer.strategy.Strategy;
-import misc.player.human.input.MoveInput;
-
-import java.util.List;
 
 /**
  * Negamax strategy implementation with alpha beta pruning
@@ -19,19 +16,36 @@ public abstract class NegaMaxAlphaBeta extends NegaMax {
     }
 
     /**
-     * Perform the alpha-beta pruned negamax algorithm to obtain the best move
+     * Create a new negamax strategy with alpha beta pruning that deepens iteratively until the time limit expires
+     */
+    public NegaMaxAlphaBeta(int depth, Color color, long timeLimit) {
+        super(depth, color, timeLimit);
+    }
+
+    /**
+     * Perform the alpha-beta pruned negamax algorithm
      */
     @Override
-    public MoveInput determineMove(GameState state) {
-        setBestMove(null);
-        negamaxAlphaBeta(state, getDepth(), getMaximizingColor(), -Integer.MAX_VALUE, Integer.MAX_VALUE);
-        return new MoveInput(getBestMove().getX(), getBestMove().getY());
+    protected int search(GameState state, int depth, Color color, int alpha, int beta) {
+        return negamaxAlphaBeta(state, depth, color, alpha, beta);
+    }
+
+    /**
+     * The search prunes with the window
+     */
+    @Override
+    protected boolean usesWindow() {
+        return true;
     }
 
     /**
      * Negamax algorithm
      */
     private int negamaxAlphaBeta(GameState state, int depth, Color color, int alpha, int beta) {
+        /** Check if the search has to be abandoned */
+        if (outOfTime()) {
+            return 0;
+        }
         /** Check base cases */
         if (state.lastMoveWasWinning()) {
             return -WIN;
@@ -40,25 +54,34 @@ public abstract class NegaMaxAlphaBeta extends NegaMax {
             return score(state, color);
         }
         /** Generate move options */
-        List<MoveSuggestion> moveOptions = Strategy.generatePossibleMoves(state, color);
+        int[] moveOptions = moveBuffer(depth);
+        int count = Strategy.generatePossibleMoves(state, moveOptions);
         /** Calculate order in which moves should be evaluated */
-        orderMoves(moveOptions, state);
+        orderMoves(moveOptions, count, color, state);
+        if (isRoot(depth)) {
+            orderRoot(moveOptions, count);
+        }
         /** Evaluate all possible moves. Minimize loss for maximal result */
         int bestScore = Integer.MIN_VALUE;
-        for (MoveSuggestion move : moveOptions) {
+        for (int i = 0; i < count; i++) {
+            int move = moveOptions[i];
             /** Apply move */
-            state.doMove(move.getColor(), move.getX(), move.getY());
+            state.doMove(color, move);
             /** Determine score */
             int score = -negamaxAlphaBeta(state, depth - 1, color.other(), -beta, -alpha);
+            /** Undo move for reuse of grid */
+            state.undoMove();
+            /** The score is meaningless if the search was abandoned */
+            if (isStopped()) {
+                return 0;
+            }
             /** Compare with previous results */
             if (bestScore < score) {
                 bestScore = score;
-                if (depth == getDepth()) {
-                    setBestMove(move);
+                if (isRoot(depth)) {
+                    setBestMove(color, move);
                 }
             }
-            /** Undo move for reuse of grid */
-            state.undoMove();
             /** Prune! */
             alpha = Math.max(alpha, score);
             if (alpha >= beta) {
@@ -4,57 +4,100 @@ import misc.*;
 import misc.player.computer.strategy.Strategy;
 import misc.player.human.input.MoveInput;
 
-import java.util.HashMap;
-import java.util.List;
-
 /**
  * Negamax alpha beta using transposition tables
+ *
+ * Can run as a principal variation search (see NegaScout): the first move of every node is searched with the full
+ * window, the others are only tested with a null window first.
  */
 public abstract class NegaMaxDynamic extends NegaMaxAlphaBeta {
 
     /**
-     * Transposition table
+     * Transposition table. Can be shared with other searches
      *
      * Store game states as hashes because they are not immutable
      */
-    private HashMap<Integer, TableEntry> tt;
+    private final TranspositionTable tt;
+    /** Killer moves and history of the search */
+    private final MoveOrdering ordering;
+    /** Indicates that all but the first move of a node are tested with a null window first */
+    private boolean scout;
 
     /**
      * Create a new negamax strategy with alpha beta pruning
      */
     public NegaMaxDynamic(int depth, Color color) {
-        super(depth, color);
-        this.tt = new HashMap<>();
+        this(depth, color, TranspositionTable.DEFAULT_SIZE);
+    }
+
+    /**
+     * Create a new negamax strategy with alpha beta pruning and a transposition table of the specified size (in MB)
+     */
+    public NegaMaxDynamic(int depth, Color color, int ttSize) {
+        this(depth, color, ttSize, 0);
+    }
+
+    /**
+     * Create a new negamax strategy with a transposition table (size in MB) that deepens iteratively until the time
+     * limit expires
+     */
+    public NegaMaxDynamic(int depth, Color color, int ttSize, long timeLimit) {
+        this(depth, color, new TranspositionTable(ttSize), timeLimit);
+    }
+
+    /**
+     * Create a new negamax strategy using the specified transposition table, that deepens iteratively until the time
+     * limit expires
+     */
+    public NegaMaxDynamic(int depth, Color color, TranspositionTable tt, long timeLimit) {
+        super(depth, color, timeLimit);
+        this.tt = tt;
+        this.ordering = new MoveOrdering();
     }
 
     /**
-     * Perform the alpha-beta pruned negamax algorithm to obtain the best move
+     * Perform the alpha-beta pruned negamax algorithm to obtain the best move. Iterations share the transposition table
      */
     @Override
     public MoveInput determineMove(GameState state) {
-        setBestMove(null);
-        negamaxDynamic(state, getDepth(), getMaximizingColor(), -Integer.MAX_VALUE, Integer.MAX_VALUE);
-        tt.clear();
-        return new MoveInput(getBestMove().getX(), getBestMove().getY());
+        tt.newSearch();
+        ordering.newSearch();
+        return super.determineMove(state);
+    }
+
+    /**
+     * Perform the alpha-beta pruned negamax algorithm using the transposition table
+     */
+    @Override
+    protected int search(GameState state, int depth, Color color, int alpha, int beta) {
+        return negamaxDynamic(state, depth, color, alpha, beta);
     }
 
     /**
      * Negamax algorithm
      */
     private int negamaxDynamic(GameState state, int depth, Color color, int alpha, int beta) {
+        /** Check if the search has to be abandoned */
+        if (outOfTime()) {
+            return 0;
+        }
         int alphaOrig = alpha;
-        /** Check if an equal game state has already been evaluated */
-        TableEntry entry = tt.get(state.hashCode());
-        if (entry != null && entry.getDepth() >= depth) {
-            if (entry.getFlag() == TableEntry.EXACT) {
-                return entry.getValue();
-            } else if (entry.getFlag() == TableEntry.LOWER_BOUND) {
-                alpha = Math.max(alpha, entry.getValue());
-            } else if (entry.getFlag() == TableEntry.UPPER_BOUND) {
-                beta = Math.min(beta, entry.getValue());
+        /** Zobrist key of the state. Maintained by the grid on every move */
+        long key = state.getZobristKey();
+        /** Check if an equal game state has already been evaluated. Never cut off at the root, a move has to be selected */
+        long entry = tt.probe(key);
+        if (!isRoot(depth) && entry != TranspositionTable.MISS && TranspositionTable.depth(entry) >= depth) {
+            int value = TranspositionTable.score(entry);
+            int flag = TranspositionTable.flag(entry);
+            if (flag == TranspositionTable.EXACT) {
+                return value;
+            } else if (flag == TranspositionTable.LOWER_BOUND) {
+                alpha = Math.max(alpha, value);
+            } else if (flag == TranspositionTable.UPPER_BOUND) {
+                beta = Math.min(beta, value);
             }
             if (alpha >= beta) {
-                return entry.getValue();
+                return value;
             }
         }
         /** Check base cases */
@@ -65,82 +108,120 @@ public abstract class NegaMaxDynamic extends NegaMaxAlphaBeta {
             return score(state, color);
         }
         /** Generate move options */
-        List<MoveSuggestion> moveOptions = Strategy.generatePossibleMoves(state, color);
+        int[] moveOptions = moveBuffer(depth);
+        int count = Strategy.generatePossibleMoves(state, moveOptions);
         /** Calculate order in which moves should be evaluated */
-        orderMoves(moveOptions, state);
+        orderNode(moveOptions, count, depth, color, state, entry);
         /** Evaluate all possible moves. Minimize loss for maximal result */
         int bestScore = Integer.MIN_VALUE;
-        for (MoveSuggestion move : moveOptions) {
+        int bestColumn = TranspositionTable.NO_MOVE;
+        boolean complete = true;
+        for (int i = 0; i < count; i++) {
+            int move = moveOptions[i];
             /** Apply move */
-            state.doMove(move.getColor(), move.getX(), move.getY());
-            /** Determine score */
-            int score = -negamaxDynamic(state, depth - 1, color.other(), -beta, -alpha);
+            state.doMove(color, move);
+            /** Determine score. A principal variation search tests all but the first move with a null window first */
+            int score;
+            if (scout && i > 0) {
+                score = -negamaxDynamic(state, depth - 1, color.other(), -alpha - 1, -alpha);
+                /** The move is better than expected. Search it again to obtain its score */
+                if (alpha < score && score < beta && !isStopped()) {
+                    score = -negamaxDynamic(state, depth - 1, color.other(), -beta, -alpha);
+                }
+            } else {
+                score = -negamaxDynamic(state, depth - 1, color.other(), -beta, -alpha);
+            }
+            /** Undo move for reuse of grid */
+            state.undoMove();
+            /** The score is meaningless if the search was abandoned. Do not store it */
+            if (isStopped()) {
+                return 0;
+            }
             /** Compare with previous results */
             if (bestScore < score) {
                 bestScore = score;
-                if (depth == getDepth()) {
-                    setBestMove(move);
+                bestColumn = move;
+                if (isRoot(depth)) {
+                    setBestMove(color, move);
                 }
             }
-            /** Undo move for reuse of grid */
-            state.undoMove();
+            if (isRoot(depth)) {
+                scoredRootMove(move, score);
+            }
             /** Prune! */
             alpha = Math.max(alpha, score);
             if (alpha >= beta) {
+                cutoff(depth, color, move, state);
+                complete = false;
                 break;
             }
         }
+        /** The root scores are exact if every move was searched and the window of the search contains the result */
+        if (isRoot(depth)) {
+            searchedRoot(complete && alphaOrig + 1 < beta && alphaOrig < bestScore && bestScore < beta);
+        }
         /** Store state */
-        TableEntry newEntry;
+        int flag;
         if (bestScore <= alphaOrig) {
-            newEntry = new TableEntry(TableEntry.UPPER_BOUND, depth, bestScore);
+            flag = TranspositionTable.UPPER_BOUND;
         } else if (bestScore >= beta) {
-            newEntry = new TableEntry(TableEntry.LOWER_BOUND, depth, bestScore);
+            flag = TranspositionTable.LOWER_BOUND;
         } else {
-            newEntry = new TableEntry(TableEntry.EXACT, depth, bestScore);
+            flag = TranspositionTable.EXACT;
         }
-        tt.put(state.hashCode(), newEntry);
+        tt.store(key, depth, flag, bestScore, bestColumn);
 
         return bestScore;
     }
 
     /**
-     * Data structure for storing evaluated moves
+     * Search hooks
      */
-    private final class TableEntry {
-
-        private static final int UPPER_BOUND = 1;
-        private static final int LOWER_BOUND = -1;
-        private static final int EXACT = 0;
-
-        private final int flag;
-        private final int depth;
-        private final int value;
 
-        TableEntry(int flag, int depth, int value) {
-            this.flag = flag;
-            this.depth = depth;
-            this.value = value;
-        }
-
-        @Override
-        public String toString() {
-            return String.format("TTEntry: Flag %d, Depth %d, Value %d", flag, depth, value);
+    /**
+     * Calculate the order in which the moves of a node are evaluated. By default the search history overrules the
+     * static order
+     * @param entry -- Transposition table entry of the node, MISS if there is none
+     */
+    protected void orderNode(int[] moves, int count, int depth, Color color, GameState state, long entry) {
+        orderMoves(moves, count, color, state);
+        if (isRoot(depth)) {
+            orderRoot(moves, count);
+        } else {
+            int ttMove = entry == TranspositionTable.MISS? TranspositionTable.NO_MOVE:TranspositionTable.move(entry);
+            ordering.order(moves, count, ply(depth), color, state, ttMove);
         }
+    }
 
-        int getFlag() {
-            return flag;
-        }
+    /**
+     * Remember the move that caused a cutoff. By default it becomes a killer move and gains history
+     */
+    protected void cutoff(int depth, Color color, int move, GameState state) {
+        ordering.cutoff(ply(depth), color, move, state, depth);
+    }
 
-        int getDepth() {
-            return depth;
-        }
+    /**
+     * Called with the score of every root move that has been searched. Scores of moves that failed low are upper bounds
+     */
+    protected void scoredRootMove(int move, int score) {
+    }
 
-        int getValue() {
-            return value;
-        }
+    /**
+     * Called when the search of the root has finished, unless it was abandoned
+     * @param exact -- if every root move was searched and the result lies within the window
+     */
+    protected void searchedRoot(boolean exact) {
+    }
 
+    /**
+     * Getters and Setters
+     */
 
+    /**
+     * Run as a principal variation search, or as a plain alpha beta search
+     */
+    protected final void setScout(boolean scout) {
+        this.scout = scout;
     }
 
 }
@@ -0,0 +1,210 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.*;
+import misc.player.computer.strategy.Strategy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Negamax strategy implementation with alpha beta pruning that searches in parallel (Young Brothers Wait)
+ *
+ * At the root and at principal variation nodes the first move is searched serially. The remaining moves are then
+ * searched in parallel with the window tightened by the first move, each on its own copy of the game state. All other
+ * nodes are searched serially.
+ *
+ * The score and orderMoves implementations are called from multiple threads and must not share mutable state. The
+ * threads of the pool keep running between decisions; call close to stop them when the search is not needed anymore.
+ */
+public abstract class NegaMaxForkJoin extends NegaMax implements AutoCloseable {
+
+    /** Nodes with less depth left are not worth splitting */
+    private static final int MIN_SPLIT_DEPTH = 3;
+
+    /** Pool that runs the search tasks */
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a new parallel negamax strategy using all available processors
+     */
+    public NegaMaxForkJoin(int depth, Color color) {
+        this(depth, color, 0, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Create a new parallel negamax strategy using the specified amount of threads, that deepens iteratively until the
+     * time limit expires
+     */
+    public NegaMaxForkJoin(int depth, Color color, long timeLimit, int threads) {
+        super(depth, color, timeLimit);
+        this.pool = new ForkJoinPool(Math.max(1, threads));
+    }
+
+    /**
+     * Stop the threads of the pool. The search can not be used afterwards
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /**
+     * Start the search as a task in the pool
+     */
+    @Override
+    protected int search(GameState state, int depth, Color color, int alpha, int beta) {
+        return pool.invoke(new SearchTask(state, depth, color, alpha, beta, true));
+    }
+
+    /**
+     * Every task prunes with the window it is given
+     */
+    @Override
+    protected boolean usesWindow() {
+        return true;
+    }
+
+    /**
+     * Negamax algorithm. Splits at principal variation nodes
+     * @param task -- Task the node is searched in. Counts the nodes between two checks of the clock
+     */
+    private int negamaxForkJoin(SearchTask task, GameState state, int depth, Color color, int alpha, int beta, boolean pv) {
+        /** Check if the search has to be abandoned */
+        if (task.outOfTime()) {
+            return 0;
+        }
+        /** Check base cases */
+        if (state.lastMoveWasWinning()) {
+            return -WIN;
+        }
+        if (depth == 0 || state.gridIsFull()) {
+            return score(state, color);
+        }
+        /**
+         * Generate move options. The per-ply buffers of the superclass can not be used: a thread that waits for a join
+         * may run a stolen task at any ply in the meantime
+         */
+        int[] moveOptions = new int[Grid.COLUMNS];
+        int count = Strategy.generatePossibleMoves(state, moveOptions);
+        /** Calculate order in which moves should be evaluated */
+        orderMoves(moveOptions, count, color, state);
+        if (isRoot(depth)) {
+            orderRoot(moveOptions, count);
+        }
+        /** Evaluate all possible moves. Minimize loss for maximal result */
+        int bestScore = Integer.MIN_VALUE;
+        boolean split = pv && depth >= MIN_SPLIT_DEPTH;
+        for (int i = 0; i < count; i++) {
+            int move = moveOptions[i];
+            /** The eldest brother has been searched, search its younger brothers in parallel */
+            if (split && i == 1) {
+                return searchYoungerBrothers(state, depth, color, alpha, beta, moveOptions, count, bestScore);
+            }
+            /** Apply move */
+            state.doMove(color, move);
+            /** Determine score. Only the first move of a principal variation node leads to a principal variation node */
+            int score = -negamaxForkJoin(task, state, depth - 1, color.other(), -beta, -alpha, pv && i == 0);
+            /** Undo move for reuse of grid */
+            state.undoMove();
+            /** The score is meaningless if the search was abandoned */
+            if (isStopped()) {
+                return 0;
+            }
+            /** Compare with previous results */
+            if (bestScore < score) {
+                bestScore = score;
+                if (isRoot(depth)) {
+                    setBestMove(color, move);
+                }
+            }
+            /** Prune! */
+            alpha = Math.max(alpha, score);
+            if (alpha >= beta) {
+                break;
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Search all but the first move in parallel. Each task gets its own copy of the game state
+     * @param count -- Amount of moves
+     * @param bestScore -- Score of the first move
+     */
+    private int searchYoungerBrothers(GameState state, int depth, Color color, int alpha, int beta, int[] moves, int count, int bestScore) {
+        alpha = Math.max(alpha, bestScore);
+        if (alpha >= beta) {
+            return bestScore;
+        }
+        /** Fork */
+        List<SearchTask> tasks = new ArrayList<>();
+        for (int i = 1; i < count; i++) {
+            GameState copy = state.deepCopy();
+            copy.doMove(color, moves[i]);
+            tasks.add(new SearchTask(copy, depth - 1, color.other(), -beta, -alpha, false));
+        }
+        ForkJoinTask.invokeAll(tasks);
+        /** Join. Compare in move order, so ties are broken as in the serial search */
+        for (int i = 0; i < tasks.size(); i++) {
+            int score = -tasks.get(i).join();
+            if (isStopped()) {
+                return 0;
+            }
+            if (bestScore < score) {
+                bestScore = score;
+                if (isRoot(depth)) {
+                    setBestMove(color, moves[i + 1]);
+                }
+            }
+        }
+        return bestScore;
+    }
+
+    /**
+     * Search of a single node as a fork join task
+     */
+    @SuppressWarnings("serial")
+    private final class SearchTask extends RecursiveTask<Integer> {
+
+        private final GameState state;
+        private final int depth;
+        private final Color color;
+        private final int alpha;
+        private final int beta;
+        private final boolean pv;
+        /** Counts nodes until the clock has to be checked again. A task is only run by a single thread */
+        private int clock;
+
+        SearchTask(GameState state, int depth, Color color, int alpha, int beta, boolean pv) {
+            this.state = state;
+            this.depth = depth;
+            this.color = color;
+            this.alpha = alpha;
+            this.beta = beta;
+            this.pv = pv;
+        }
+
+        @Override
+        protected Integer compute() {
+            return negamaxForkJoin(this, state, depth, color, alpha, beta, pv);
+        }
+
+        /**
+         * Check the clock once every CLOCK_INTERVAL calls
+         * @return if the search has to be abandoned
+         */
+        boolean outOfTime() {
+            if (++clock >= CLOCK_INTERVAL) {
+                clock = 0;
+                return checkClock();
+            }
+            return isStopped();
+        }
+
+    }
+
+
+}
@@ -0,0 +1,46 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.*;
+
+/**
+ * Principal variation search (NegaScout) using transposition tables
+ *
+ * The first move of every node is searched with the full window. The other moves are only tested with a null window
+ * to prove they are not better than the first. If the test fails, the move is better after all and is searched again
+ * with the full window. With a good move ordering the first move is usually the best, so most moves only need the
+ * cheaper test.
+ */
+public abstract class NegaScout extends NegaMaxDynamic {
+
+    /**
+     * Create a new principal variation search
+     */
+    public NegaScout(int depth, Color color) {
+        this(depth, color, TranspositionTable.DEFAULT_SIZE);
+    }
+
+    /**
+     * Create a new principal variation search with a transposition table of the specified size (in MB)
+     */
+    public NegaScout(int depth, Color color, int ttSize) {
+        this(depth, color, ttSize, 0);
+    }
+
+    /**
+     * Create a new principal variation search with a transposition table (size in MB) that deepens iteratively until
+     * the time limit expires
+     */
+    public NegaScout(int depth, Color color, int ttSize, long timeLimit) {
+        this(depth, color, new TranspositionTable(ttSize), timeLimit);
+    }
+
+    /**
+     * Create a new principal variation search using the specified transposition table, that deepens iteratively until
+     * the time limit expires
+     */
+    public NegaScout(int depth, Color color, TranspositionTable tt, long timeLimit) {
+        super(depth, color, tt, timeLimit);
+        setScout(true);
+    }
+
+}
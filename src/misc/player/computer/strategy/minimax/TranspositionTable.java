@@ -0,0 +1,187 @@
+package misc.player.computer.strategy.minimax;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size transposition table packed into a primitive array
+ *
+ * Each entry takes two words: the Zobrist key of the position and a data word holding the score, depth, bound flag,
+ * best move and generation. Entries are grouped in buckets of two. The first entry of a bucket is only replaced by
+ * searches that are at least as deep or by any search once the entry is stale, the second entry is always replaced.
+ *
+ * The table is meant to be kept during a game. Call newSearch before every search so entries of earlier searches are
+ * recognized as stale.
+ *
+ * The table can be shared by multiple searching threads without locking. The key word is stored XOR-ed with the data
+ * word, so an entry of which the two words were written by different threads does not match any key.
+ */
+public final class TranspositionTable {
+
+    /**
+     * Constants
+     */
+
+    /** Default memory budget in megabytes */
+    public static final int DEFAULT_SIZE = 16;
+
+    /** Flag indicating the stored score is exact */
+    public static final int EXACT = 1;
+    /** Flag indicating the stored score is a lower bound */
+    public static final int LOWER_BOUND = 2;
+    /** Flag indicating the stored score is an upper bound */
+    public static final int UPPER_BOUND = 3;
+
+    /** Data word returned when a position is not in the table */
+    public static final long MISS = 0L;
+    /** Move value indicating no best move is known */
+    public static final int NO_MOVE = -1;
+
+    /** Bytes taken by a single entry */
+    private static final int ENTRY_SIZE = 2 * Long.BYTES;
+    /** Entries per bucket */
+    private static final int BUCKET_SIZE = 2;
+
+    /** Layout of the data word */
+    private static final int DEPTH_SHIFT = 32;
+    private static final int FLAG_SHIFT = 40;
+    private static final int MOVE_SHIFT = 42;
+    private static final int AGE_SHIFT = 48;
+    private static final long DEPTH_MASK = 0xFF;
+    private static final long FLAG_MASK = 0x3;
+    private static final long MOVE_MASK = 0x1F;
+    private static final long AGE_MASK = 0xFF;
+
+    /**
+     * Instance variables
+     */
+
+    /** Key (XOR-ed with data) and data words of all entries */
+    private final long[] table;
+    /** Mask to map a key onto a bucket index */
+    private final int bucketMask;
+    /** Generation of the current search. Wraps around */
+    private int generation;
+
+    /**
+     * Create a new transposition table that uses at most the specified amount of megabytes
+     */
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(BUCKET_SIZE, (long) megabytes * 1024 * 1024 / ENTRY_SIZE);
+        /** Round the amount of buckets down to a power of two */
+        int buckets = Integer.highestOneBit((int) Math.min(Integer.MAX_VALUE / (2 * BUCKET_SIZE), entries / BUCKET_SIZE));
+        this.table = new long[buckets * BUCKET_SIZE * 2];
+        this.bucketMask = buckets - 1;
+        this.generation = 0;
+    }
+
+    /**
+     * Queries
+     */
+
+    /**
+     * Look up a position
+     * @param key -- Zobrist key of the position
+     * @return the data word of the entry, or MISS if the position is not in the table
+     */
+    public long probe(long key) {
+        int index = indexOf(key);
+        /** Read every data word once, it may be overwritten by another thread in the meantime */
+        long data = table[index + 1];
+        if ((table[index] ^ data) == key && data != MISS) {
+            return data;
+        }
+        data = table[index + 3];
+        if ((table[index + 2] ^ data) == key && data != MISS) {
+            return data;
+        }
+        return MISS;
+    }
+
+    /**
+     * @return the amount of entries that fit in this table
+     */
+    public int capacity() {
+        return table.length / 2;
+    }
+
+    /**
+     * Data word decoding
+     */
+
+    public static int score(long data) {
+        return (int) data;
+    }
+
+    public static int depth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & DEPTH_MASK);
+    }
+
+    public static int flag(long data) {
+        return (int) ((data >>> FLAG_SHIFT) & FLAG_MASK);
+    }
+
+    public static int move(long data) {
+        return (int) ((data >>> MOVE_SHIFT) & MOVE_MASK) - 1;
+    }
+
+    private static int age(long data) {
+        return (int) ((data >>> AGE_SHIFT) & AGE_MASK);
+    }
+
+    /**
+     * Commands
+     */
+
+    /**
+     * Store the result of a search
+     * @param key -- Zobrist key of the position
+     * @param depth -- Depth to which the position was searched
+     * @param flag -- EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param score -- Score of the position
+     * @param move -- Column index of the best move, or NO_MOVE
+     */
+    public void store(long key, int depth, int flag, int score, int move) {
+        long data = (score & 0xFFFFFFFFL)
+                | ((depth & DEPTH_MASK) << DEPTH_SHIFT)
+                | ((flag & FLAG_MASK) << FLAG_SHIFT)
+                | (((move + 1) & MOVE_MASK) << MOVE_SHIFT)
+                | ((generation & AGE_MASK) << AGE_SHIFT);
+        int index = indexOf(key);
+        /** Replace the depth-preferred entry if it holds the same position, is empty, is stale or was searched less deep */
+        long old = table[index + 1];
+        if ((table[index] ^ old) == key || old == MISS || age(old) != generation || depth(old) <= depth) {
+            table[index] = key ^ data;
+            table[index + 1] = data;
+        } else {
+            table[index + 2] = key ^ data;
+            table[index + 3] = data;
+        }
+    }
+
+    /**
+     * Start a new generation. Entries stored by earlier searches remain available, but are replaced first
+     */
+    public void newSearch() {
+        generation = (generation + 1) & (int) AGE_MASK;
+    }
+
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        Arrays.fill(table, 0L);
+    }
+
+    /**
+     * Helper methods
+     */
+
+    /**
+     * @return the index of the first word of the bucket the key maps to
+     */
+    private int indexOf(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * BUCKET_SIZE * 2;
+    }
+
+
+}
@@ -13,9 +13,110 @@ import java.util.Random;
 public class GameStateTest {
 
 
+    /**
+     * Test the win check against a slot-by-slot scan of all axes through the last move
+     */
     @Test
     public void testWinCheck() throws Exception {
-        // TODO
+
+        /** A 4x4x4 grid has 76 winning lines */
+
+        Assert.assertEquals(76, Geometry.LINES);
+
+        /** Compare with the reference implementation for random games */
+
+        final int nrOfTests = 10000;
+        final Random random = new Random();
+
+        for (int test = 0; test < nrOfTests; test++) {
+            GameState state = new GameState();
+            Color current = Color.RED;
+            while (!state.gridIsFull()) {
+                if (!state.doMove(current, random.nextInt(Grid.XRANGE), random.nextInt(Grid.YRANGE))) {
+                    continue;
+                }
+                boolean won = state.lastMoveWasWinning();
+                Assert.assertEquals(referenceWinCheck(state), won);
+                if (won) {
+                    break;
+                }
+                current = current.other();
+            }
+        }
+    }
+
+    /**
+     * Count the chain through the last move along each of the 13 axes
+     */
+    private static boolean referenceWinCheck(GameState state) {
+        final int[][] axes = new int[][]{
+                {1, 0, 0}, {0, 1, 0}, {0, 0, 1},
+                {1, 1, 0}, {1, -1, 0}, {1, 0, 1}, {1, 0, -1}, {0, 1, 1}, {0, 1, -1},
+                {1, 1, 1}, {1, 1, -1}, {1, -1, 1}, {-1, 1, 1}
+        };
+        Move last = state.getLastMove();
+        for (int[] axis : axes) {
+            int chainLength = 1;
+            for (int sign = -1; sign <= 1; sign += 2) {
+                for (int i = 1; i < Game.CONNECT; i++) {
+                    int x = last.getX() + sign * i * axis[0];
+                    int y = last.getY() + sign * i * axis[1];
+                    int z = last.getZ() + sign * i * axis[2];
+                    if (!Grid.isValidSlot(x, y, z) || state.colorOccupying(x, y, z) != last.getColor()) {
+                        break;
+                    }
+                    chainLength++;
+                }
+            }
+            if (chainLength >= Game.CONNECT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Test that copies and snapshots are equal to the original, but are not affected by later moves
+     */
+    @Test
+    public void testCopy() throws Exception {
+        final Random random = new Random();
+        GameState state = new GameState();
+        Color current = Color.RED;
+        for (int i = 0; i < Grid.SLOTS / 2; i++) {
+            if (state.doMove(current, random.nextInt(Grid.XRANGE), random.nextInt(Grid.YRANGE))) {
+                current = current.other();
+            }
+        }
+
+        GameState copy = state.deepCopy();
+        GameStateSnapshot snapshot = state.snapshot();
+
+        Assert.assertEquals(state, copy);
+        Assert.assertEquals(state.getMoves(), copy.getMoves());
+        Assert.assertEquals(state.getZobristKey(), copy.getZobristKey());
+        Assert.assertEquals(state.getMoves(), snapshot.getMoves());
+        Assert.assertEquals(state.getZobristKey(), snapshot.getZobristKey());
+
+        /** Moves on the original do not show up in the copies */
+
+        final int moves = state.getMoveCount();
+        final long key = state.getZobristKey();
+        while (!state.doMove(current, random.nextInt(Grid.XRANGE), random.nextInt(Grid.YRANGE))) {}
+
+        Assert.assertEquals(moves, copy.getMoveCount());
+        Assert.assertEquals(key, copy.getZobristKey());
+        Assert.assertEquals(moves, snapshot.getMoveCount());
+        Assert.assertEquals(key, snapshot.getZobristKey());
+
+        /** Undoing on the copy restores the earlier position */
+
+        state.undoMove();
+        state.undoMove();
+        copy.undoMove();
+
+        Assert.assertEquals(state, copy);
+        Assert.assertEquals(state.getZobristKey(), copy.getZobristKey());
     }
 
     /**
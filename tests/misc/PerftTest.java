@@ -0,0 +1,45 @@
+package misc;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class PerftTest {
+
+    /** Deepest depth that is checked. Deeper counts take seconds, run Perft.main for those */
+    private static final int DEPTH = 5;
+
+    /**
+     * Test the leaf counts of all reference positions
+     */
+    @Test
+    public void testReferenceCounts() {
+        for (int position = 0; position < Perft.positions(); position++) {
+            GameState state = Perft.state(position);
+            for (int depth = 1; depth <= DEPTH; depth++) {
+                Assert.assertEquals(String.format("%s at depth %d", Perft.name(position), depth),
+                        Perft.reference(position, depth), Perft.perft(state, depth, Perft.toMove(position)));
+            }
+        }
+    }
+
+    /**
+     * Test that counting leaves the game state unchanged
+     */
+    @Test
+    public void testStateUnchanged() {
+        for (int position = 0; position < Perft.positions(); position++) {
+            GameState state = Perft.state(position);
+            long key = state.getZobristKey();
+            int moves = state.getMoves().size();
+            Perft.perft(state, 3, Perft.toMove(position));
+            Assert.assertEquals(key, state.getZobristKey());
+            Assert.assertEquals(moves, state.getMoves().size());
+            Assert.assertEquals(Perft.state(position), state);
+        }
+    }
+
+
+}
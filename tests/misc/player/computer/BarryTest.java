@@ -1,7 +1,11 @@
 package misc.player.computer;
 
 import misc.Color;
+import misc.GameState;
+import misc.Grid;
 import misc.player.computer.barry.Barry;
+import misc.player.human.input.MoveInput;
+import org.junit.Assert;
 import org.junit.Test;
 
 /**
@@ -14,7 +18,44 @@ public class BarryTest {
     @Test
     public void testInitialize() {
         Barry badpak = new Barry(Color.RED);
+        badpak.close();
+    }
+
+    /**
+     * Test if a time limited Barry answers in time with a valid move
+     */
+    @Test
+    public void testTimeLimit() {
+        final long timeLimit = 1000;
+        Barry badpak = new Barry(Color.RED, Barry.DEPTH, timeLimit);
+        GameState state = new GameState();
+
+        long start = System.currentTimeMillis();
+        MoveInput move = (MoveInput) badpak.decide(state);
+        long duration = System.currentTimeMillis() - start;
+
+        Assert.assertTrue(Grid.isValidColumn(move.getX(), move.getY()));
+        Assert.assertTrue(String.format("Took %d ms", duration), duration < 2 * timeLimit);
+    }
+
+    /**
+     * Test if Barry searching with multiple threads plays a complete game with valid moves
+     */
+    @Test
+    public void testParallel() {
+        Barry red = new Barry(Color.RED, 5, 0, 3);
+        Barry yel = new Barry(Color.YELLOW, Barry.DEPTH, 100, 3);
+        GameState state = new GameState();
+
+        Barry current = red;
+        while (!state.lastMoveWasWinning() && !state.gridIsFull()) {
+            MoveInput move = (MoveInput) current.decide(state.deepCopy());
+            Assert.assertTrue(state.doMove(current.getColor(), move.getX(), move.getY()));
+            current = current == red? yel:red;
+        }
+        red.close();
+        yel.close();
     }
 
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package misc.player.computer.barry;
+
+import misc.Color;
+import misc.GameState;
+import misc.Geometry;
+import misc.Grid;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ *
+ */
+public class NegaMaxSpaghettiTest {
+
+    /**
+     * Test that the incrementally tracked chains score the same as a scan of all lines, while moves are made and undone
+     */
+    @Test
+    public void testChainTracking() {
+        final int nrOfTests = 1000;
+        final Random random = new Random();
+
+        NegaMaxSpaghetti spaghetti = new NegaMaxSpaghetti(1, Color.RED, 1);
+        for (int test = 0; test < nrOfTests; test++) {
+            GameState state = spaghetti.new ExtendedGameState();
+            Color current = Color.RED;
+            while (!state.gridIsFull()) {
+                /** Sometimes take back a move */
+                if (state.getMoveCount() > 0 && random.nextInt(4) == 0) {
+                    state.undoMove();
+                    current = current.other();
+                } else if (state.doMove(current, random.nextInt(Grid.XRANGE), random.nextInt(Grid.YRANGE))) {
+                    current = current.other();
+                } else {
+                    continue;
+                }
+                Assert.assertEquals(referenceScore(state, Color.RED), spaghetti.score(state, Color.RED));
+                Assert.assertEquals(referenceScore(state, Color.YELLOW), spaghetti.score(state, Color.YELLOW));
+            }
+        }
+    }
+
+    /**
+     * Score every line that is not blocked by both colors with 2 ^ length
+     */
+    private static int referenceScore(GameState state, Color color) {
+        int score = 0;
+        for (long mask : Geometry.LINE_MASKS) {
+            int own = Long.bitCount(state.getBoard(color) & mask);
+            int other = Long.bitCount(state.getBoard(color.other()) & mask);
+            if (own == 0 || other == 0) {
+                score += (1 << own) - (1 << other);
+            }
+        }
+        return score;
+    }
+
+
+}
@@ -0,0 +1,67 @@
+package misc.player.computer.strategy.heuristics;
+
+import misc.Geometry;
+import misc.Grid;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *
+ */
+public class WeightsTest {
+
+    /**
+     * Test that the default slot weights favor the middle of the grid like the original slot heuristic
+     */
+    @Test
+    public void testDefaults() {
+        for (int slot = 0; slot < Geometry.SLOTS; slot++) {
+            int expected = (Grid.XRANGE - Math.abs(Grid.XRANGE / 2 - Geometry.X_OF[slot]))
+                    + (Grid.YRANGE - Math.abs(Grid.YRANGE / 2 - Geometry.Y_OF[slot]))
+                    + (Grid.ZRANGE - Math.abs(Grid.ZRANGE / 2 - Geometry.Z_OF[slot]));
+            Assert.assertEquals(expected, Weights.DEFAULT.slot(slot));
+        }
+        for (int length = 0; length <= 4; length++) {
+            Assert.assertEquals(length, Weights.DEFAULT.chain(length));
+        }
+    }
+
+    /**
+     * Test that orientation and level weights are folded into the line and slot tables
+     */
+    @Test
+    public void testFolding() throws IOException {
+        Weights weights = load("chain = 0, 1, 3, 9, 27\norientation = 1, 2, 3, 4, 5\nslot.1 = 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1\nlevel = 0, 10, 20, 30");
+        Assert.assertEquals(9, weights.chain(3));
+        for (int line = 0; line < Geometry.LINES; line++) {
+            Assert.assertEquals(Geometry.LINE_ORIENTATION[line] + 1, weights.line(line));
+        }
+        for (int slot = 0; slot < Geometry.SLOTS; slot++) {
+            int z = Geometry.Z_OF[slot];
+            Assert.assertEquals(10 * z + (z == 1? 1:0), weights.slot(slot));
+        }
+        /** Missing keys are neutral */
+        Weights empty = load("");
+        Assert.assertEquals(0, empty.chain(4));
+        Assert.assertEquals(1, empty.line(0));
+        Assert.assertEquals(0, empty.slot(0));
+    }
+
+    /**
+     * Test that lists of the wrong length are rejected
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongLength() throws IOException {
+        load("chain = 1, 2, 3");
+    }
+
+    private static Weights load(String properties) throws IOException {
+        return Weights.load(new ByteArrayInputStream(properties.getBytes(StandardCharsets.ISO_8859_1)));
+    }
+
+
+}
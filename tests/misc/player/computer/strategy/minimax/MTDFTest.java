@@ -0,0 +1,107 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.*;
+import misc.player.human.input.MoveInput;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests if MTD(f) converges on the same score as the plain alpha beta search
+ *
+ * MTD(f) may break ties between equally good moves differently, so instead of the decision the score of the decision
+ * is compared.
+ */
+public class MTDFTest {
+
+    private static final int DEPTH = 5;
+
+    private static final int STATES = 50;
+
+    private List<GameState> gameStates;
+
+    @Before
+    public void setUp() throws Exception {
+        gameStates = NegaMaxAlphaBetaTest.generateRandomGameStates(STATES);
+    }
+
+    @Test
+    public void testScoreEquality() throws Exception {
+        for (GameState state : gameStates) {
+            NegaMaxAlphaBetaTestVersion alphaBeta = new NegaMaxAlphaBetaTestVersion(DEPTH, Color.RED);
+            MTDFTestVersion mtdf = new MTDFTestVersion(DEPTH, Color.RED);
+            alphaBeta.determineMove(state);
+            MoveInput move = mtdf.determineMove(state);
+
+            Assert.assertEquals("\n" + TUI.prettyPrint(state), alphaBeta.lastScore, mtdf.lastScore);
+
+            /** The decision has to be worth the score */
+            state.doMove(Color.RED, move.getX(), move.getY());
+            if (!state.lastMoveWasWinning() && !state.gridIsFull()) {
+                NegaMaxAlphaBetaTestVersion reply = new NegaMaxAlphaBetaTestVersion(DEPTH - 1, Color.YELLOW);
+                reply.determineMove(state);
+                Assert.assertEquals("\n" + TUI.prettyPrint(state), mtdf.lastScore, -reply.lastScore);
+            }
+            state.undoMove();
+        }
+    }
+
+    /**
+     * Convenience classes
+     */
+
+    private class NegaMaxAlphaBetaTestVersion extends NegaMaxAlphaBeta {
+
+        private int lastScore;
+
+        NegaMaxAlphaBetaTestVersion(int depth, Color color) {
+            super(depth, color);
+        }
+
+        @Override
+        protected int search(GameState state, int depth, Color color, int alpha, int beta) {
+            lastScore = super.search(state, depth, color, alpha, beta);
+            return lastScore;
+        }
+
+        @Override
+        protected int score(GameState state, Color color) {
+            return NegaMaxAlphaBetaTest.score(state, color);
+        }
+
+        @Override
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
+        }
+    }
+
+    private class MTDFTestVersion extends MTDF {
+
+        private int lastScore;
+
+        MTDFTestVersion(int depth, Color color) {
+            super(depth, color);
+        }
+
+        @Override
+        protected int search(GameState state, int depth, Color color, int alpha, int beta) {
+            /** Every pass of MTD(f) is a search. The last pass returns the score it converged on */
+            lastScore = super.search(state, depth, color, alpha, beta);
+            return lastScore;
+        }
+
+        @Override
+        protected int score(GameState state, Color color) {
+            return NegaMaxAlphaBetaTest.score(state, color);
+        }
+
+        @Override
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
+        }
+    }
+
+
+}
@@ -0,0 +1,73 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.Color;
+import misc.GameState;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the priorities of the dynamic move ordering
+ */
+public class MoveOrderingTest {
+
+    private MoveOrdering ordering;
+    private GameState state;
+
+    @Before
+    public void setUp() throws Exception {
+        ordering = new MoveOrdering();
+        state = new GameState();
+    }
+
+    /**
+     * Test if the transposition table move goes before the killer moves, and the killer moves before the history
+     */
+    @Test
+    public void testPriorities() throws Exception {
+        /** Column 3 caused a deep cutoff elsewhere, columns 5 and 9 caused cutoffs at ply 2 (9 most recently) */
+        ordering.cutoff(4, Color.RED, 3, state, 6);
+        ordering.cutoff(2, Color.RED, 5, state, 1);
+        ordering.cutoff(2, Color.RED, 9, state, 1);
+
+        int[] moves = {0, 3, 5, 7, 9, 12};
+        ordering.order(moves, moves.length, 2, Color.RED, state, 12);
+        Assert.assertArrayEquals(new int[] {12, 9, 5, 3, 0, 7}, moves);
+
+        /** Killer moves belong to a ply, history belongs to a color */
+        moves = new int[] {0, 3, 5, 7, 9, 12};
+        ordering.order(moves, moves.length, 3, Color.YELLOW, state, TranspositionTable.NO_MOVE);
+        Assert.assertArrayEquals(new int[] {0, 3, 5, 7, 9, 12}, moves);
+    }
+
+    /**
+     * Test if a killer move only matches the column at the height it was played at
+     */
+    @Test
+    public void testKillerHeight() throws Exception {
+        ordering.cutoff(1, Color.RED, 6, state, 1);
+        state.doMove(Color.YELLOW, 6);
+
+        int[] moves = {2, 6};
+        ordering.order(moves, moves.length, 1, Color.RED, state, TranspositionTable.NO_MOVE);
+        Assert.assertArrayEquals(new int[] {2, 6}, moves);
+
+        state.undoMove();
+        ordering.order(moves, moves.length, 1, Color.RED, state, TranspositionTable.NO_MOVE);
+        Assert.assertArrayEquals(new int[] {6, 2}, moves);
+    }
+
+    /**
+     * Test if a new search forgets the killer moves
+     */
+    @Test
+    public void testNewSearch() throws Exception {
+        ordering.cutoff(1, Color.RED, 6, state, 1);
+        ordering.newSearch();
+
+        int[] moves = {2, 6};
+        ordering.order(moves, moves.length, 1, Color.RED, state, TranspositionTable.NO_MOVE);
+        Assert.assertArrayEquals(new int[] {2, 6}, moves);
+    }
+
+}
@@ -119,7 +119,7 @@ public class NegaMaxAlphaBetaTest {
     /**
      * Determine move ordering before evaluation
      */
-    static void orderMoves(List<MoveSuggestion> moves) {}
+    static void orderMoves(int[] moves, int count) {}
 
     /**
      * Convenience classes
@@ -137,8 +137,8 @@ public class NegaMaxAlphaBetaTest {
         }
 
         @Override
-        protected void orderMoves(List<MoveSuggestion> moves, GameState state) {
-            NegaMaxAlphaBetaTest.orderMoves(moves);
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
         }
     }
 
@@ -154,8 +154,8 @@ public class NegaMaxAlphaBetaTest {
         }
 
         @Override
-        protected void orderMoves(List<MoveSuggestion> moves, GameState state) {
-            NegaMaxAlphaBetaTest.orderMoves(moves);
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
         }
     }
 
@@ -40,6 +40,11 @@ public class NegaMaxDynamicTest {
         System.out.println("Comparing decisions...");
         int i = 0;
         for (GameState state : gameStates) {
+            /**
+             * The transposition table is kept between decisions. Deeper results for earlier states would make the
+             * decision differ from a plain fixed depth search, so every state gets a fresh table
+             */
+            dynamicNega = new TestPlayer("DynamicNegaMax", Color.RED, new NegaMaxDynamicTestVersion(DEPTH, Color.RED));
             MoveInput m1 = (MoveInput) alphaBetaNega.decide(state);
             MoveInput m2 = (MoveInput) dynamicNega.decide(state);
 
@@ -49,6 +54,18 @@ public class NegaMaxDynamicTest {
         System.out.println("\nFinished comparing decisions");
     }
 
+    @Test
+    public void testFullWindowRootSearchIsExact() throws Exception {
+        for (GameState state : gameStates) {
+            /** A fixed depth search has one iteration, which searches the root with the full window */
+            NegaMaxDynamicTestVersion dynamic = new NegaMaxDynamicTestVersion(DEPTH, Color.RED);
+            dynamic.determineMove(state);
+
+            Assert.assertTrue("\n" + TUI.prettyPrint(state), dynamic.rootExact);
+            Assert.assertEquals("\n" + TUI.prettyPrint(state), Strategy.generatePossibleMoves(state, new int[Grid.COLUMNS]), dynamic.rootScores);
+        }
+    }
+
     /**
      * Convenience classes
      */
@@ -65,25 +82,38 @@ public class NegaMaxDynamicTest {
         }
 
         @Override
-        protected void orderMoves(List<MoveSuggestion> moves, GameState state) {
-            NegaMaxAlphaBetaTest.orderMoves(moves);
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
         }
     }
 
     private class NegaMaxDynamicTestVersion extends NegaMaxDynamic {
 
+        private int rootScores;
+        private boolean rootExact;
+
         NegaMaxDynamicTestVersion(int depth, Color color) {
             super(depth, color);
         }
 
+        @Override
+        protected void scoredRootMove(int move, int score) {
+            rootScores++;
+        }
+
+        @Override
+        protected void searchedRoot(boolean exact) {
+            rootExact = exact;
+        }
+
         @Override
         protected int score(GameState state, Color color) {
             return NegaMaxAlphaBetaTest.score(state, color);
         }
 
         @Override
-        protected void orderMoves(List<MoveSuggestion> moves, GameState state) {
-            NegaMaxAlphaBetaTest.orderMoves(moves);
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
         }
 
     }
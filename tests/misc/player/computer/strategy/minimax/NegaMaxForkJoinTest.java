@@ -0,0 +1,113 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.*;
+import misc.player.computer.ComputerPlayer;
+import misc.player.computer.strategy.Strategy;
+import misc.player.human.input.MoveInput;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Assumes correctness of the alpha beta pruned NegaMax implementation
+ *
+ * Tests the parallel NegaMax implementation by checking if it makes the same decisions as the serial alpha beta
+ * implementation at equal max depth.
+ */
+public class NegaMaxForkJoinTest {
+
+    private static final int DEPTH = 6;
+
+    private static final int STATES = 50;
+
+    private static final int THREADS = 4;
+
+    private ComputerPlayer alphaBetaNega;
+    private ComputerPlayer forkJoinNega;
+    private NegaMaxForkJoin forkJoin;
+
+    private List<GameState> gameStates;
+
+    @Before
+    public void setUp() throws Exception {
+        System.out.println("Set-up...");
+        alphaBetaNega = new TestPlayer("AlphaBetaNegaMax", Color.RED, new NegaMaxAlphaBetaTestVersion(DEPTH, Color.RED));
+        forkJoin = new NegaMaxForkJoinTestVersion(DEPTH, Color.RED);
+        forkJoinNega = new TestPlayer("ForkJoinNegaMax", Color.RED, forkJoin);
+        System.out.println("Generating Game States...");
+        gameStates = NegaMaxAlphaBetaTest.generateRandomGameStates(STATES);
+        System.out.println("Finished Generating Game States...");
+        System.out.println("Finished set-up");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        forkJoin.close();
+    }
+
+    @Test
+    public void testDecisionEquality() throws Exception {
+        System.out.println("Comparing decisions...");
+        int i = 0;
+        for (GameState state : gameStates) {
+            MoveInput m1 = (MoveInput) alphaBetaNega.decide(state);
+            MoveInput m2 = (MoveInput) forkJoinNega.decide(state);
+
+            Assert.assertEquals("\n" + TUI.prettyPrint(state), m1, m2);
+            System.out.println(String.format("%d/%d passed", ++i, STATES));
+        }
+        System.out.println("\nFinished comparing decisions");
+    }
+
+    /**
+     * Convenience classes
+     */
+
+    private class NegaMaxAlphaBetaTestVersion extends NegaMaxAlphaBeta {
+
+        NegaMaxAlphaBetaTestVersion(int depth, Color color) {
+            super(depth, color);
+        }
+
+        @Override
+        protected int score(GameState state, Color color) {
+            return NegaMaxAlphaBetaTest.score(state, color);
+        }
+
+        @Override
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
+        }
+    }
+
+    private class NegaMaxForkJoinTestVersion extends NegaMaxForkJoin {
+
+        NegaMaxForkJoinTestVersion(int depth, Color color) {
+            super(depth, color, 0, THREADS);
+        }
+
+        @Override
+        protected int score(GameState state, Color color) {
+            return NegaMaxAlphaBetaTest.score(state, color);
+        }
+
+        @Override
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
+        }
+
+    }
+
+    private class TestPlayer extends ComputerPlayer {
+
+        public TestPlayer(String name, Color color, Strategy strategy) {
+            super(name, color, strategy);
+        }
+
+    }
+
+
+}
@@ -0,0 +1,105 @@
+package misc.player.computer.strategy.minimax;
+
+import misc.*;
+import misc.player.computer.ComputerPlayer;
+import misc.player.computer.strategy.Strategy;
+import misc.player.human.input.MoveInput;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+/**
+ * Tests if the principal variation search decides like the plain alpha beta search
+ */
+public class NegaScoutTest {
+
+    private static final int DEPTH = 7;
+
+    private static final int STATES = 50;
+
+    private ComputerPlayer alphaBetaNega;
+    private ComputerPlayer scoutNega;
+
+    private List<GameState> gameStates;
+
+    @Before
+    public void setUp() throws Exception {
+        System.out.println("Set-up...");
+        alphaBetaNega = new TestPlayer("DAlphaBetaNegaMax", Color.RED, new NegaMaxAlphaBetaTestVersion(DEPTH, Color.RED));
+        scoutNega = new TestPlayer("NegaScout", Color.RED, new NegaScoutTestVersion(DEPTH, Color.RED));
+        System.out.println("Generating Game States...");
+        gameStates = NegaMaxAlphaBetaTest.generateRandomGameStates(STATES);
+        System.out.println("Finished Generating Game States...");
+        System.out.println("Finished set-up");
+    }
+
+    @Test
+    public void testDecisionEquality() throws Exception {
+        System.out.println("Comparing decisions...");
+        int i = 0;
+        for (GameState state : gameStates) {
+            /**
+             * The transposition table is kept between decisions. Deeper results for earlier states would make the
+             * decision differ from a plain fixed depth search, so every state gets a fresh table
+             */
+            scoutNega = new TestPlayer("NegaScout", Color.RED, new NegaScoutTestVersion(DEPTH, Color.RED));
+            MoveInput m1 = (MoveInput) alphaBetaNega.decide(state);
+            MoveInput m2 = (MoveInput) scoutNega.decide(state);
+
+            Assert.assertEquals("\n" + TUI.prettyPrint(state), m1, m2);
+            System.out.println(String.format("%d/%d passed", ++i, STATES));
+        }
+        System.out.println("\nFinished comparing decisions");
+    }
+
+    /**
+     * Convenience classes
+     */
+
+    private class NegaMaxAlphaBetaTestVersion extends NegaMaxAlphaBeta {
+
+        NegaMaxAlphaBetaTestVersion(int depth, Color color) {
+            super(depth, color);
+        }
+
+        @Override
+        protected int score(GameState state, Color color) {
+            return NegaMaxAlphaBetaTest.score(state, color);
+        }
+
+        @Override
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
+        }
+    }
+
+    private class NegaScoutTestVersion extends NegaScout {
+
+        NegaScoutTestVersion(int depth, Color color) {
+            super(depth, color);
+        }
+
+        @Override
+        protected int score(GameState state, Color color) {
+            return NegaMaxAlphaBetaTest.score(state, color);
+        }
+
+        @Override
+        protected void orderMoves(int[] moves, int count, Color color, GameState state) {
+            NegaMaxAlphaBetaTest.orderMoves(moves, count);
+        }
+
+    }
+
+    private class TestPlayer extends ComputerPlayer {
+
+        public TestPlayer(String name, Color color, Strategy strategy) {
+            super(name, color, strategy);
+        }
+
+    }
+
+
+}
\ No newline at end of file
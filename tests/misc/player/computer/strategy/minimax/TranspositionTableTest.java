@@ -0,0 +1,90 @@
+package misc.player.computer.strategy.minimax;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the packing and replacement policy of the transposition table
+ */
+public class TranspositionTableTest {
+
+    private TranspositionTable tt;
+
+    @Before
+    public void setUp() throws Exception {
+        tt = new TranspositionTable(1);
+    }
+
+    /**
+     * Test if stored entries are returned unchanged
+     */
+    @Test
+    public void testStoreAndProbe() throws Exception {
+        final long key = 0x123456789ABCDEFL;
+
+        Assert.assertEquals(TranspositionTable.MISS, tt.probe(key));
+
+        tt.store(key, 7, TranspositionTable.LOWER_BOUND, -9999, 15);
+        long entry = tt.probe(key);
+        Assert.assertNotEquals(TranspositionTable.MISS, entry);
+        Assert.assertEquals(-9999, TranspositionTable.score(entry));
+        Assert.assertEquals(7, TranspositionTable.depth(entry));
+        Assert.assertEquals(TranspositionTable.LOWER_BOUND, TranspositionTable.flag(entry));
+        Assert.assertEquals(15, TranspositionTable.move(entry));
+
+        tt.store(key, 3, TranspositionTable.EXACT, 42, TranspositionTable.NO_MOVE);
+        entry = tt.probe(key);
+        Assert.assertEquals(42, TranspositionTable.score(entry));
+        Assert.assertEquals(TranspositionTable.NO_MOVE, TranspositionTable.move(entry));
+
+        /** The empty board has key 0 and must be storable as well */
+        Assert.assertEquals(TranspositionTable.MISS, tt.probe(0L));
+        tt.store(0L, 1, TranspositionTable.EXACT, 0, 0);
+        Assert.assertNotEquals(TranspositionTable.MISS, tt.probe(0L));
+
+        tt.clear();
+        Assert.assertEquals(TranspositionTable.MISS, tt.probe(key));
+    }
+
+    /**
+     * Test if deep entries survive shallow entries mapping to the same bucket
+     */
+    @Test
+    public void testReplacement() throws Exception {
+        final long buckets = tt.capacity() / 2;
+        final long deep = 5L;
+        final long shallow1 = deep + buckets;
+        final long shallow2 = deep + 2 * buckets;
+
+        tt.store(deep, 9, TranspositionTable.EXACT, 1, 0);
+        tt.store(shallow1, 2, TranspositionTable.EXACT, 2, 0);
+        tt.store(shallow2, 2, TranspositionTable.EXACT, 3, 0);
+
+        Assert.assertEquals(1, TranspositionTable.score(tt.probe(deep)));
+        Assert.assertEquals(TranspositionTable.MISS, tt.probe(shallow1));
+        Assert.assertEquals(3, TranspositionTable.score(tt.probe(shallow2)));
+    }
+
+    /**
+     * Test if deep entries of earlier searches survive, but give way to entries of the current search
+     */
+    @Test
+    public void testGenerations() throws Exception {
+        final long buckets = tt.capacity() / 2;
+        final long old = 5L;
+        final long recent = old + buckets;
+
+        tt.store(old, 9, TranspositionTable.EXACT, 1, 0);
+        tt.newSearch();
+
+        Assert.assertEquals(1, TranspositionTable.score(tt.probe(old)));
+
+        tt.store(recent, 2, TranspositionTable.EXACT, 2, 0);
+
+        Assert.assertEquals(TranspositionTable.MISS, tt.probe(old));
+        Assert.assertEquals(2, TranspositionTable.score(tt.probe(recent)));
+    }
+
+
+}